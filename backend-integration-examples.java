@@ -11,6 +11,9 @@ public class ClientController {
     @Autowired
     private NotificationService notificationService;
     
+    @Autowired
+    private ClientSearchIndex clientSearchIndex;
+    
     @PostMapping
     public ResponseEntity<Client> createClient(@RequestBody Client client) {
         Client savedClient = clientService.save(client);
@@ -18,8 +21,26 @@ public class ClientController {
         // Criar notificação de novo cliente
         notificationService.notifyNewClient(savedClient.getName());
         
+        // Manter a pesquisa de clientes (GET /api/clients/search) atualizada
+        clientSearchIndex.putClient(savedClient.getId(), savedClient.getName(), savedClient.getPhone());
+        
+        return ResponseEntity.ok(savedClient);
+    }
+    
+    @PutMapping("/{id}")
+    public ResponseEntity<Client> updateClient(@PathVariable Long id, @RequestBody Client client) {
+        client.setId(id);
+        Client savedClient = clientService.save(client);
+        clientSearchIndex.putClient(savedClient.getId(), savedClient.getName(), savedClient.getPhone());
         return ResponseEntity.ok(savedClient);
     }
+    
+    @DeleteMapping("/{id}")
+    public ResponseEntity<Void> deleteClient(@PathVariable Long id) {
+        clientService.deleteById(id);
+        clientSearchIndex.removeClient(id);
+        return ResponseEntity.ok().build();
+    }
 }
 
 // 2. No AppointmentController - quando criar uma nova marcação
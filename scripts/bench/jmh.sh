@@ -0,0 +1,16 @@
+#!/usr/bin/env bash
+# Runs the JMH benchmarks under src/test (AvailabilityEngineBenchmark, NotificationEncodingBenchmark).
+# JMH forks a fresh JVM per benchmark, so they run with plain java on the test class path instead of
+# inside Maven (exec:java would hand the forks Maven's own class path).
+# Needs org.openjdk.jmh:jmh-core and org.openjdk.jmh:jmh-generator-annprocess as test dependencies.
+#
+# Usage: scripts/bench/jmh.sh [benchmark regex] [JMH options, e.g. -f 3 -wi 5 -rf json]
+set -euo pipefail
+
+PATTERN="${1:-Benchmark}"
+shift || true
+
+./mvnw -q test-compile dependency:build-classpath \
+    -Dmdep.outputFile=target/test-classpath.txt -Dmdep.includeScope=test
+java -cp "target/test-classes:target/classes:$(cat target/test-classpath.txt)" \
+    org.openjdk.jmh.Main "$PATTERN" "$@"
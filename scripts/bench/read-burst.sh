@@ -0,0 +1,53 @@
+#!/usr/bin/env bash
+# Fires synchronized bursts of identical reads (the start-of-shift pattern: every open tab
+# asking for the unread count and the list at once) and reports how many queries reached
+# the database, to compare read collapsing on and off.
+#
+# Usage: scripts/bench/read-burst.sh [concurrency] [bursts] [port]
+#
+# Run it once against an app started normally and once with
+# --app.notifications.read-collapsing.enabled=false, then compare the "db calls" lines.
+# Query counts come from pg_stat_statements: set DATABASE_URL for psql and enable the extension
+# (shared_preload_libraries = 'pg_stat_statements'; CREATE EXTENSION pg_stat_statements).
+set -euo pipefail
+
+CONCURRENCY="${1:-50}"
+BURSTS="${2:-20}"
+PORT="${3:-8000}"
+BASE="http://localhost:$PORT/api/notifications"
+: "${DATABASE_URL:?Set DATABASE_URL (psql connection string) to read pg_stat_statements}"
+
+db_calls() {
+    psql "$DATABASE_URL" -Atqc \
+        "SELECT COALESCE(sum(calls), 0) FROM pg_stat_statements
+         WHERE query ILIKE 'select%from notifications%' AND query NOT ILIKE '%pg_stat_statements%'"
+}
+
+now_ms() {
+    date +%s%3N
+}
+
+burst() {
+    local path="$1"
+    # xargs starts all requests at once; curl -w prints the latency of each
+    seq "$CONCURRENCY" | xargs -P "$CONCURRENCY" -I{} \
+        curl -s -o /dev/null -w '%{time_total}\n' "$BASE$path"
+}
+
+run() {
+    local path="$1" before after start elapsed latencies
+    before=$(db_calls)
+    start=$(now_ms)
+    latencies=$(for _ in $(seq 1 "$BURSTS"); do burst "$path"; done)
+    elapsed=$(( $(now_ms) - start ))
+    after=$(db_calls)
+    printf "%-14s requests=%6d  db calls=%6d  wall=%6d ms  p50=%s s  max=%s s\n" \
+        "${path:-/}" $(( CONCURRENCY * BURSTS )) $(( after - before )) "$elapsed" \
+        "$(sort -n <<< "$latencies" | awk '{ a[NR] = $1 } END { print a[int((NR + 1) / 2)] }')" \
+        "$(sort -n <<< "$latencies" | tail -1)"
+}
+
+curl -sf -o /dev/null "$BASE/unread/count" || { echo "App not answering on port $PORT" >&2; exit 1; }
+run /unread/count
+run ""
+run /unread
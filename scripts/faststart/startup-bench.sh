@@ -0,0 +1,53 @@
+#!/usr/bin/env bash
+# Compares startup of the default mode against the fast-start mode
+# (faststart profile + AppCDS archive from train-cds.sh).
+#
+# Usage: scripts/faststart/startup-bench.sh [runs] [port]
+#
+# For each run it reports time-to-first-request (JVM launch until
+# GET /api/notifications/unread/count answers 200) and the RSS of the process at that moment.
+# Needs the same database settings as a normal start (SPRING_DATASOURCE_* environment variables).
+set -euo pipefail
+
+RUNS="${1:-5}"
+PORT="${2:-8000}"
+JAR="${JAR:-target/barbershopAPI-0.0.1-SNAPSHOT.jar}"
+OUT="${OUT:-target/faststart}"
+URL="http://localhost:$PORT/api/notifications/unread/count"
+
+if [[ ! -f "$OUT/app.jsa" ]]; then
+    echo "Missing $OUT/app.jsa, run scripts/faststart/train-cds.sh first" >&2
+    exit 1
+fi
+
+now_ms() {
+    date +%s%3N
+}
+
+measure() {
+    local label="$1"
+    shift
+    local start pid rss elapsed
+    start=$(now_ms)
+    "$@" --server.port="$PORT" > /dev/null 2>&1 &
+    pid=$!
+    until curl -sf -o /dev/null "$URL"; do
+        if ! kill -0 "$pid" 2> /dev/null; then
+            echo "$label: process exited before serving requests" >&2
+            return 1
+        fi
+        sleep 0.05
+    done
+    elapsed=$(( $(now_ms) - start ))
+    rss=$(awk '/VmRSS/ { print int($2 / 1024) }' "/proc/$pid/status")
+    kill "$pid"
+    wait "$pid" 2> /dev/null || true
+    printf "%-10s time-to-first-request=%6d ms  rss=%5d MB\n" "$label" "$elapsed" "$rss"
+}
+
+APP_JAR="$OUT/$(basename "$JAR")"
+for run in $(seq 1 "$RUNS"); do
+    echo "run $run/$RUNS"
+    measure default java -jar "$JAR"
+    measure faststart java -XX:SharedArchiveFile="$OUT/app.jsa" -Dspring.profiles.active=faststart -jar "$APP_JAR"
+done
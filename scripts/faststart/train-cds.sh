@@ -0,0 +1,24 @@
+#!/usr/bin/env bash
+# Builds a dynamic AppCDS archive for the API from a training run.
+#
+# Usage: scripts/faststart/train-cds.sh [path/to/barbershopAPI.jar] [output-dir]
+#
+# The jar is extracted first (CDS needs a stable class path of plain jars), then the
+# application is started once with spring.context.exit=onRefresh: it loads every class
+# needed to refresh the context and exits, and the JVM dumps them into app.jsa.
+set -euo pipefail
+
+JAR="${1:-target/barbershopAPI-0.0.1-SNAPSHOT.jar}"
+OUT="${2:-target/faststart}"
+
+rm -rf "$OUT"
+java -Djarmode=tools -jar "$JAR" extract --destination "$OUT"
+
+APP_JAR="$OUT/$(basename "$JAR")"
+java -XX:ArchiveClassesAtExit="$OUT/app.jsa" \
+     -Dspring.context.exit=onRefresh \
+     -Dspring.profiles.active=faststart \
+     -jar "$APP_JAR"
+
+echo "CDS archive written to $OUT/app.jsa"
+echo "Run with: java -XX:SharedArchiveFile=$OUT/app.jsa -Dspring.profiles.active=faststart -jar $APP_JAR"
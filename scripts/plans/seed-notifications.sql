@@ -0,0 +1,79 @@
+-- Seeds the notifications table with a large, skewed dataset for the query-plan test
+-- (NotificationRepositoryPlanTest runs it inside its PostgreSQL container).
+-- DESTRUCTIVE: truncates notifications. Run only against a scratch database:
+--   psql "$PLAN_DATABASE_URL" -v ON_ERROR_STOP=1 -v scratch=1 [-v rows=3000000] [-v days=45] \
+--        -f scripts/plans/seed-notifications.sql
+--
+-- Shape (roughly what a busy shop accumulates):
+--   created_at   spread evenly over the last :days days, ids increasing with time
+--   type         60% APPOINTMENT, 20% CLIENT, 10% SERVICE, 10% SYSTEM
+--   expires_at   created_at + 30 days (SYSTEM 7 days), so part of the table is an expired
+--                backlog the reaper has not reached yet
+--   read_status  older than 2 days: 99% read; newer: 40% read
+--   references   APPOINTMENT rows point at an appointment (3 notifications each),
+--                CLIENT rows at one of 50k clients, SERVICE rows at one of 40 services
+--   idempotency  30% of rows carry a key
+
+\if :{?scratch}
+\else
+\echo 'Refusing to run: this truncates notifications. Pass -v scratch=1 against a scratch database.'
+\quit
+\endif
+\if :{?rows}
+\else
+\set rows 3000000
+\endif
+\if :{?days}
+\else
+\set days 45
+\endif
+
+-- Skip the change-log and updated_at triggers (and their pg_notify) while bulk loading
+SET session_replication_role = replica;
+
+TRUNCATE notifications;
+
+INSERT INTO notifications (id, created_at, updated_at, expires_at, type_code, icon_code, read_status,
+                           title, message, action_url, idempotency_key, entity_type, entity_id)
+SELECT g,
+       c.created_at,
+       c.created_at,
+       c.created_at + CASE WHEN t.type_code = 4 THEN INTERVAL '7 days' ELSE INTERVAL '30 days' END,
+       t.type_code,
+       t.icon_code,
+       CASE WHEN c.created_at < now() - INTERVAL '2 days' THEN r.r_read < 0.99 ELSE r.r_read < 0.40 END,
+       t.title,
+       t.title || ': cliente ' || (g % 50000) || ' às ' || to_char(c.created_at, 'HH24:MI') || ' com o barbeiro ' || (g % 12),
+       CASE WHEN t.type_code = 1 THEN '/appointments' END,
+       CASE WHEN r.r_key < 0.30 THEN 'seed-' || g END,
+       CASE t.type_code WHEN 1 THEN 1 WHEN 2 THEN 2 WHEN 3 THEN 3 END,
+       CASE t.type_code
+           WHEN 1 THEN 'appt-' || (g / 3)
+           WHEN 2 THEN (g % 50000)::text
+           WHEN 3 THEN (g % 40)::text
+       END
+FROM generate_series(1, :rows) AS g
+CROSS JOIN LATERAL (SELECT random() AS r_type, random() AS r_read, random() AS r_key) AS r
+CROSS JOIN LATERAL (
+    SELECT now() - :days * INTERVAL '1 day' * (1 - g::float8 / :rows) AS created_at
+) AS c
+CROSS JOIN LATERAL (
+    SELECT CASE WHEN r.r_type < 0.60 THEN 1 WHEN r.r_type < 0.80 THEN 2 WHEN r.r_type < 0.90 THEN 3 ELSE 4 END AS type_code
+) AS tc
+CROSS JOIN LATERAL (
+    SELECT tc.type_code,
+           (ARRAY[4, 3, 7, 2])[tc.type_code] AS icon_code,
+           (ARRAY['Nova Marcação', 'Novo Cliente', 'Serviço Atualizado', 'Mensagem do Sistema'])[tc.type_code] AS title
+) AS t;
+
+SET session_replication_role = DEFAULT;
+
+SELECT setval('notifications_id_seq', (SELECT max(id) FROM notifications));
+
+VACUUM ANALYZE notifications;
+
+SELECT count(*)                                                       AS rows,
+       count(*) FILTER (WHERE expires_at > now())                     AS live,
+       count(*) FILTER (WHERE expires_at > now() AND NOT read_status) AS live_unread,
+       pg_size_pretty(pg_total_relation_size('notifications'))        AS total_size
+FROM notifications;
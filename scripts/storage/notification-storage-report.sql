@@ -0,0 +1,52 @@
+-- Storage report for the notifications table (PostgreSQL).
+-- Run before and after V7__Compact_notifications_layout.sql and compare:
+--   psql "$DATABASE_URL" -f scripts/storage/notification-storage-report.sql
+--
+-- Computed estimates for V7 (64-bit server, 8-byte MAXALIGN; 64-bit JVM, compressed oops):
+--
+-- Heap row, fixed part (excluding title/message/action_url/idempotency_key)
+--   before: id 8 + type varchar 12 ('APPOINTMENT') + icon varchar ~11 + read_status 1
+--           + padding ~3.5 before created_at + 3 timestamps 24           ~ 59.5 B
+--   after:  id 8 + 3 timestamps 24 + type_code 2 + icon_code 2 + read_status 1 = 37 B
+--   => ~22 B less per row; a typical 170 B row (60-character message) shrinks by ~13%
+--
+-- Indexes, per row (8 B index tuple header + key, MAXALIGNed, + 4 B line pointer)
+--   idx_notifications_type:        28 B (varchar 'APPOINTMENT') -> 20 B (smallint), -29%
+--   idx_notifications_read_status: 20 B -> dropped; unread queries use the partial
+--                                  idx_notifications_unread_expires_at index
+--
+-- JVM heap per loaded Notification
+--   icon: a String per row read from JDBC (24 B + 32 B byte[]) -> shared enum constant, -56 B
+--   type: already a shared enum constant, unchanged
+--   readStatus: Boolean.valueOf is cached, so boolean saves no allocation (object stays 56 B)
+--   the three LocalDateTime values (72 B each) are unchanged, as the JSON API depends on them
+--   => ~56 B less out of ~520 B for a typical entity with its strings, ~11%
+
+-- Table, TOAST and index sizes
+SELECT pg_size_pretty(pg_table_size('notifications'))          AS table_size,
+       pg_size_pretty(pg_indexes_size('notifications'))        AS indexes_size,
+       pg_size_pretty(pg_total_relation_size('notifications')) AS total_size,
+       (SELECT count(*) FROM notifications)                    AS row_count;
+
+-- Size of each index
+SELECT indexrelid::regclass                          AS index_name,
+       pg_size_pretty(pg_relation_size(indexrelid)) AS index_size
+FROM pg_index
+WHERE indrelid = 'notifications'::regclass
+ORDER BY pg_relation_size(indexrelid) DESC;
+
+-- Average stored row size (tuple data, without the 24 B header and line pointer)
+SELECT round(avg(pg_column_size(n.*)), 1) AS avg_row_bytes,
+       max(pg_column_size(n.*))           AS max_row_bytes
+FROM notifications n;
+
+-- Average stored size per column (pg_stats needs fresh statistics)
+ANALYZE notifications;
+SELECT a.attname AS column_name,
+       a.attlen  AS fixed_length,
+       s.avg_width
+FROM pg_attribute a
+LEFT JOIN pg_stats s
+       ON s.schemaname = current_schema() AND s.tablename = 'notifications' AND s.attname = a.attname
+WHERE a.attrelid = 'notifications'::regclass AND a.attnum > 0 AND NOT a.attisdropped
+ORDER BY a.attnum;
@@ -0,0 +1,19 @@
+package barbershopAPI.barbershopAPI.config;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+// Maximum number of SQL statements a request to this endpoint may run.
+// Checked by QueryBudgetTest, which calls every annotated endpoint through a counting DataSource
+// and also fails when the same statement runs repeatedly within one request (an N+1 pattern).
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface QueryBudget {
+    
+    int value();
+    
+    // Disable N+1 detection for endpoints that legitimately repeat a statement (batched work)
+    boolean detectRepeats() default true;
+}
@@ -0,0 +1,86 @@
+package barbershopAPI.barbershopAPI.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import javax.sql.DataSource;
+import java.util.ArrayDeque;
+import java.util.Deque;
+
+// Tracks how far the replica may be behind the primary.
+// The replica is only used when the last local write is older than the lag bound
+// and the replica itself is within that bound.
+// Lag is measured against the primary: every check samples the primary's current WAL position
+// and then asks the replica how far it has replayed. Once the replica has replayed past a sample,
+// it holds everything committed on the primary up to when that sample was taken; the lag is the
+// age of the newest such sample (0 when it has replayed the sample just taken). A replica that
+// has not even received the WAL therefore shows as behind, unlike with its own receive/replay LSNs.
+public class ReplicaLagMonitor {
+    
+    private static final Logger log = LoggerFactory.getLogger(ReplicaLagMonitor.class);
+    
+    // WAL positions as byte offsets
+    private static final String PRIMARY_LSN_QUERY = "SELECT pg_current_wal_lsn() - '0/0'::pg_lsn";
+    // NULL when the replica is not a standby at all (e.g. the same instance when testing locally)
+    private static final String REPLAYED_LSN_QUERY =
+        "SELECT CASE WHEN pg_is_in_recovery() THEN pg_last_wal_replay_lsn() - '0/0'::pg_lsn END";
+    
+    // Samples kept while the replica is behind; older ones are dropped, which only overstates the lag
+    private static final int MAX_SAMPLES = 3600;
+    
+    private final JdbcTemplate primaryJdbcTemplate;
+    private final JdbcTemplate replicaJdbcTemplate;
+    private final long maxLagMs;
+    
+    // Primary WAL positions not yet replayed by the replica, oldest first (only used by refreshLag)
+    private final Deque<LsnSample> samples = new ArrayDeque<>();
+    private long caughtUpAt = 0;
+    
+    private volatile long lastWriteAt = 0;
+    private volatile long replicaLagMs = Long.MAX_VALUE;
+    
+    public ReplicaLagMonitor(DataSource primaryDataSource, DataSource replicaDataSource, long maxLagMs) {
+        this.primaryJdbcTemplate = new JdbcTemplate(primaryDataSource);
+        this.replicaJdbcTemplate = new JdbcTemplate(replicaDataSource);
+        this.maxLagMs = maxLagMs;
+    }
+    
+    public void recordWrite() {
+        lastWriteAt = System.currentTimeMillis();
+    }
+    
+    public boolean isReplicaFresh() {
+        return replicaLagMs <= maxLagMs && System.currentTimeMillis() - lastWriteAt > maxLagMs;
+    }
+    
+    @Scheduled(fixedDelayString = "${app.datasource.replica.lag-check-interval-ms:1000}")
+    public synchronized void refreshLag() {
+        try {
+            long sampledAt = System.currentTimeMillis();
+            Number primaryLsn = primaryJdbcTemplate.queryForObject(PRIMARY_LSN_QUERY, Number.class);
+            Number replayedLsn = replicaJdbcTemplate.queryForObject(REPLAYED_LSN_QUERY, Number.class);
+            if (replayedLsn == null) {
+                samples.clear();
+                replicaLagMs = 0;
+                return;
+            }
+            if (samples.size() == MAX_SAMPLES) {
+                samples.removeFirst();
+            }
+            samples.addLast(new LsnSample(sampledAt, primaryLsn.longValue()));
+            while (!samples.isEmpty() && samples.peekFirst().lsn() <= replayedLsn.longValue()) {
+                caughtUpAt = samples.removeFirst().sampledAt();
+            }
+            replicaLagMs = samples.isEmpty() ? 0 : System.currentTimeMillis() - caughtUpAt;
+        } catch (RuntimeException e) {
+            // Unknown lag is treated as too much lag: all reads stay on the primary
+            replicaLagMs = Long.MAX_VALUE;
+            log.warn("Could not read replica lag: {}", e.getMessage());
+        }
+    }
+    
+    private record LsnSample(long sampledAt, long lsn) {
+    }
+}
@@ -0,0 +1,81 @@
+package barbershopAPI.barbershopAPI.config;
+
+import barbershopAPI.barbershopAPI.dto.CompactNotification;
+import barbershopAPI.barbershopAPI.entities.Notification;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.module.SimpleModule;
+import com.fasterxml.jackson.databind.ser.std.StdDelegatingSerializer;
+import com.fasterxml.jackson.databind.util.StdConverter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.web.server.Compression;
+import org.springframework.boot.web.server.WebServerFactoryCustomizer;
+import org.springframework.boot.web.servlet.server.ConfigurableServletWebServerFactory;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.util.unit.DataSize;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import java.util.List;
+
+// Response encodings negotiated per request:
+// - Accept-Encoding: gzip compresses JSON and CBOR bodies above a size threshold
+// - Accept: application/cbor serializes notifications in their compact form
+//   (short field names, persisted type code, epoch-millis timestamps); JSON stays unchanged
+// Needs com.fasterxml.jackson.dataformat:jackson-dataformat-cbor on the classpath (see README)
+@Configuration
+public class ResponseEncodingConfig implements WebMvcConfigurer {
+    
+    @Value("${app.compression.min-response-size:1KB}")
+    private DataSize minResponseSize;
+    
+    @Override
+    public void extendMessageConverters(List<HttpMessageConverter<?>> converters) {
+        MappingJackson2CborHttpMessageConverter compactConverter = new MappingJackson2CborHttpMessageConverter(compactCborMapper());
+        // Replaces Spring's default CBOR converter, which precedes anything appended and would serve the full form;
+        // kept after the JSON converter so that Accept: */* still gets JSON
+        int position = -1;
+        for (int i = converters.size() - 1; i >= 0; i--) {
+            if (converters.get(i) instanceof MappingJackson2CborHttpMessageConverter) {
+                converters.remove(i);
+                position = i;
+            }
+        }
+        if (position < 0) {
+            position = converters.size();
+            for (int i = 0; i < converters.size(); i++) {
+                if (converters.get(i) instanceof MappingJackson2HttpMessageConverter) {
+                    position = i + 1;
+                }
+            }
+        }
+        converters.add(position, compactConverter);
+    }
+    
+    // CBOR mapper writing notifications in their compact form (also used by NotificationEncodingBenchmark)
+    public static ObjectMapper compactCborMapper() {
+        SimpleModule compactNotifications = new SimpleModule();
+        compactNotifications.addSerializer(Notification.class, new StdDelegatingSerializer(
+            new StdConverter<Notification, CompactNotification>() {
+                @Override
+                public CompactNotification convert(Notification notification) {
+                    return new CompactNotification(notification);
+                }
+            }));
+        return Jackson2ObjectMapperBuilder.cbor().modules(compactNotifications).build();
+    }
+    
+    @Bean
+    public WebServerFactoryCustomizer<ConfigurableServletWebServerFactory> compressionCustomizer() {
+        return factory -> {
+            Compression compression = new Compression();
+            compression.setEnabled(true);
+            compression.setMimeTypes(new String[] {"application/json", "application/cbor", "text/plain"});
+            compression.setMinResponseSize(minResponseSize);
+            factory.setCompression(compression);
+        };
+    }
+}
@@ -0,0 +1,114 @@
+package barbershopAPI.barbershopAPI.config;
+
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Locale;
+
+// Sends read-only transactions to the replica pool and everything else to the primary.
+// Reads fall back to the primary while the replica may not have seen a recent write yet;
+// only a committed transaction that actually sent a write statement counts as one.
+public class RoutingDataSource extends AbstractRoutingDataSource {
+    
+    public enum Route {
+        PRIMARY, REPLICA
+    }
+    
+    private final ReplicaLagMonitor lagMonitor;
+    
+    public RoutingDataSource(ReplicaLagMonitor lagMonitor) {
+        this.lagMonitor = lagMonitor;
+    }
+    
+    @Override
+    protected Object determineCurrentLookupKey() {
+        if (TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            return lagMonitor.isReplicaFresh() ? Route.REPLICA : Route.PRIMARY;
+        }
+        return Route.PRIMARY;
+    }
+    
+    @Override
+    public Connection getConnection() throws SQLException {
+        return trackWrites(super.getConnection());
+    }
+    
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return trackWrites(super.getConnection(username, password));
+    }
+    
+    // Connections outside a read-write transaction (e.g. reads with no transaction) are never tracked
+    private Connection trackWrites(Connection connection) {
+        if (!TransactionSynchronizationManager.isActualTransactionActive()
+                || TransactionSynchronizationManager.isCurrentTransactionReadOnly()
+                || !TransactionSynchronizationManager.isSynchronizationActive()) {
+            return connection;
+        }
+        WriteTracker tracker = new WriteTracker(connection);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                if (tracker.wrote) {
+                    lagMonitor.recordWrite();
+                }
+            }
+        });
+        return (Connection) Proxy.newProxyInstance(
+            Connection.class.getClassLoader(), new Class<?>[] {Connection.class}, tracker);
+    }
+    
+    // Flags the transaction as writing once any statement other than a SELECT is prepared or run.
+    // Statements are inspected as they are created, so writes flushed at commit are seen too.
+    private static final class WriteTracker implements InvocationHandler {
+        
+        private final Connection connection;
+        private volatile boolean wrote = false;
+        
+        WriteTracker(Connection connection) {
+            this.connection = connection;
+        }
+        
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            if (args != null && args.length > 0 && args[0] instanceof String sql
+                    && (method.getName().startsWith("prepare") || method.getName().equals("nativeSQL"))) {
+                see(sql);
+            }
+            Object result = call(connection, method, args);
+            if (result instanceof Statement statement && method.getName().equals("createStatement")) {
+                return Proxy.newProxyInstance(Statement.class.getClassLoader(), new Class<?>[] {Statement.class},
+                    (statementProxy, statementMethod, statementArgs) -> {
+                        if (statementArgs != null && statementArgs.length > 0 && statementArgs[0] instanceof String sql
+                                && (statementMethod.getName().startsWith("execute") || statementMethod.getName().equals("addBatch"))) {
+                            see(sql);
+                        }
+                        return call(statement, statementMethod, statementArgs);
+                    });
+            }
+            return result;
+        }
+        
+        private void see(String sql) {
+            if (!wrote && !sql.stripLeading().toUpperCase(Locale.ROOT).startsWith("SELECT")) {
+                wrote = true;
+            }
+        }
+        
+        private static Object call(Object target, Method method, Object[] args) throws Throwable {
+            try {
+                return method.invoke(target, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+        }
+    }
+}
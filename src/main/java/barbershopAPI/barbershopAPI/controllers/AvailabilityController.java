@@ -0,0 +1,76 @@
+package barbershopAPI.barbershopAPI.controllers;
+
+import barbershopAPI.barbershopAPI.services.schedule.AvailabilityEngine;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/availability")
+@CrossOrigin(origins = "*")
+public class AvailabilityController {
+    
+    private static final int MAX_RANGE_DAYS = 31;
+    
+    @Autowired
+    private AvailabilityEngine availabilityEngine;
+    
+    // Get available start times ("HH:mm") for one barber, service and day.
+    // Duration and buffer come from the service, never from the request.
+    @GetMapping
+    public ResponseEntity<List<String>> getAvailability(
+            @RequestParam Long barberId,
+            @RequestParam Long serviceId,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date,
+            @RequestParam(defaultValue = "5") int stepMin) {
+        if (!availabilityEngine.isLoaded()) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).build();
+        }
+        if (!availabilityEngine.hasService(serviceId)) {
+            return ResponseEntity.notFound().build();
+        }
+        List<LocalTime> starts = availabilityEngine.getAvailableStarts(barberId, serviceId, date, stepMin);
+        return ResponseEntity.ok(format(starts));
+    }
+    
+    // Get available start times for several barbers over a date range
+    @GetMapping("/range")
+    public ResponseEntity<Map<Long, Map<LocalDate, List<String>>>> getAvailabilityRange(
+            @RequestParam List<Long> barberIds,
+            @RequestParam Long serviceId,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(defaultValue = "5") int stepMin) {
+        if (to.isBefore(from) || from.plusDays(MAX_RANGE_DAYS).isBefore(to)) {
+            return ResponseEntity.badRequest().build();
+        }
+        if (!availabilityEngine.isLoaded()) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).build();
+        }
+        if (!availabilityEngine.hasService(serviceId)) {
+            return ResponseEntity.notFound().build();
+        }
+        Map<Long, Map<LocalDate, List<LocalTime>>> availability =
+            availabilityEngine.getAvailableStarts(barberIds, serviceId, from, to, stepMin);
+        
+        Map<Long, Map<LocalDate, List<String>>> response = new LinkedHashMap<>();
+        availability.forEach((barberId, byDay) -> {
+            Map<LocalDate, List<String>> days = new LinkedHashMap<>();
+            byDay.forEach((day, starts) -> days.put(day, format(starts)));
+            response.put(barberId, days);
+        });
+        return ResponseEntity.ok(response);
+    }
+    
+    private static List<String> format(List<LocalTime> starts) {
+        return starts.stream().map(LocalTime::toString).toList();
+    }
+}
@@ -0,0 +1,105 @@
+package barbershopAPI.barbershopAPI.controllers;
+
+import barbershopAPI.barbershopAPI.config.QueryBudget;
+import barbershopAPI.barbershopAPI.dto.CalendarView;
+import barbershopAPI.barbershopAPI.services.schedule.BookingEngine;
+import barbershopAPI.barbershopAPI.services.schedule.BookingException;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.LocalDateTime;
+
+@RestController
+@RequestMapping("/api/bookings")
+@CrossOrigin(origins = "*")
+public class BookingController {
+    
+    @Autowired
+    private BookingEngine bookingEngine;
+    
+    // Book an appointment; 409 when the barber is not free (working hours, time off, other bookings).
+    // Two statements: the insert and the pg_notify of its change event (pinned by QueryBudgetTest)
+    @PostMapping
+    @QueryBudget(2)
+    public ResponseEntity<CalendarView.Appointment> createBooking(@RequestBody BookingRequest request) {
+        if (request.getBarberId() == null || request.getStartsAt() == null || request.getEndsAt() == null) {
+            return ResponseEntity.badRequest().build();
+        }
+        try {
+            return ResponseEntity.ok(bookingEngine.book(
+                request.getBarberId(),
+                request.getServiceId(),
+                request.getClientId(),
+                request.getStartsAt(),
+                request.getEndsAt(),
+                request.getNotes()
+            ));
+        } catch (BookingException e) {
+            return switch (e.getReason()) {
+                case INVALID_RANGE -> ResponseEntity.badRequest().build();
+                case SCHEDULE_NOT_LOADED -> ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).build();
+                case SLOT_UNAVAILABLE -> ResponseEntity.status(HttpStatus.CONFLICT).build();
+            };
+        }
+    }
+    
+    public static class BookingRequest {
+        private Long barberId;
+        private Long serviceId;
+        private Long clientId;
+        private LocalDateTime startsAt;
+        private LocalDateTime endsAt;
+        private String notes;
+        
+        // Getters and Setters
+        public Long getBarberId() {
+            return barberId;
+        }
+        
+        public void setBarberId(Long barberId) {
+            this.barberId = barberId;
+        }
+        
+        public Long getServiceId() {
+            return serviceId;
+        }
+        
+        public void setServiceId(Long serviceId) {
+            this.serviceId = serviceId;
+        }
+        
+        public Long getClientId() {
+            return clientId;
+        }
+        
+        public void setClientId(Long clientId) {
+            this.clientId = clientId;
+        }
+        
+        public LocalDateTime getStartsAt() {
+            return startsAt;
+        }
+        
+        public void setStartsAt(LocalDateTime startsAt) {
+            this.startsAt = startsAt;
+        }
+        
+        public LocalDateTime getEndsAt() {
+            return endsAt;
+        }
+        
+        public void setEndsAt(LocalDateTime endsAt) {
+            this.endsAt = endsAt;
+        }
+        
+        public String getNotes() {
+            return notes;
+        }
+        
+        public void setNotes(String notes) {
+            this.notes = notes;
+        }
+    }
+}
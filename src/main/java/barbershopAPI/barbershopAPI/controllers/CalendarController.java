@@ -0,0 +1,37 @@
+package barbershopAPI.barbershopAPI.controllers;
+
+import barbershopAPI.barbershopAPI.config.QueryBudget;
+import barbershopAPI.barbershopAPI.dto.CalendarView;
+import barbershopAPI.barbershopAPI.services.schedule.CalendarService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/calendar")
+@CrossOrigin(origins = "*")
+public class CalendarController {
+    
+    // A month view with the surrounding weeks fits comfortably
+    private static final int MAX_RANGE_DAYS = 62;
+    
+    @Autowired
+    private CalendarService calendarService;
+    
+    // Get appointments, working hours and time off for several barbers (all when barberIds is omitted)
+    @GetMapping
+    @QueryBudget(3)
+    public ResponseEntity<CalendarView> getCalendar(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @RequestParam(required = false) List<Long> barberIds) {
+        if (!to.isAfter(from) || from.plusDays(MAX_RANGE_DAYS).isBefore(to)) {
+            return ResponseEntity.badRequest().build();
+        }
+        return ResponseEntity.ok(calendarService.getCalendar(barberIds, from, to));
+    }
+}
@@ -0,0 +1,33 @@
+package barbershopAPI.barbershopAPI.controllers;
+
+import barbershopAPI.barbershopAPI.config.QueryBudget;
+import barbershopAPI.barbershopAPI.dto.ClientMatch;
+import barbershopAPI.barbershopAPI.services.search.ClientSearchService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/clients")
+@CrossOrigin(origins = "*")
+public class ClientSearchController {
+    
+    private static final int MAX_LIMIT = 100;
+    
+    @Autowired
+    private ClientSearchService clientSearchService;
+    
+    // Search clients by name or phone prefix, ignoring case and accents
+    @GetMapping("/search")
+    @QueryBudget(1)
+    public ResponseEntity<List<ClientMatch>> searchClients(
+            @RequestParam String q,
+            @RequestParam(defaultValue = "20") int limit) {
+        if (limit < 1 || limit > MAX_LIMIT) {
+            return ResponseEntity.badRequest().build();
+        }
+        return ResponseEntity.ok(clientSearchService.search(q.trim(), limit));
+    }
+}
@@ -0,0 +1,31 @@
+package barbershopAPI.barbershopAPI.controllers;
+
+import barbershopAPI.barbershopAPI.entities.DeliveryDeadLetter;
+import barbershopAPI.barbershopAPI.services.delivery.DeliveryService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/deliveries")
+@CrossOrigin(origins = "*")
+public class DeliveryController {
+    
+    @Autowired
+    private DeliveryService deliveryService;
+    
+    // Get delivery counters and latency per channel
+    @GetMapping("/metrics")
+    public ResponseEntity<Map<String, Object>> getMetrics() {
+        return ResponseEntity.ok(deliveryService.getMetrics());
+    }
+    
+    // Get the most recent dead-lettered deliveries
+    @GetMapping("/dead-letters")
+    public ResponseEntity<List<DeliveryDeadLetter>> getDeadLetters() {
+        return ResponseEntity.ok(deliveryService.getRecentDeadLetters());
+    }
+}
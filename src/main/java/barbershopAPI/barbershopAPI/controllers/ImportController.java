@@ -0,0 +1,46 @@
+package barbershopAPI.barbershopAPI.controllers;
+
+import barbershopAPI.barbershopAPI.config.QueryBudget;
+import barbershopAPI.barbershopAPI.dto.ImportResult;
+import barbershopAPI.barbershopAPI.services.imports.ImportService;
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.io.IOException;
+
+@RestController
+@RequestMapping("/api/import")
+@CrossOrigin(origins = "*")
+public class ImportController {
+    
+    @Autowired
+    private ImportService importService;
+    
+    // Bulk import clients or appointments; the body is streamed as text/csv or application/x-ndjson
+    // e.g. POST /api/import?entity=appointments with Content-Type: text/csv
+    @PostMapping
+    @QueryBudget(value = Integer.MAX_VALUE, detectRepeats = false)
+    public ResponseEntity<ImportResult> importRows(@RequestParam String entity, HttpServletRequest request) throws IOException {
+        ImportService.Entity target = switch (entity.toLowerCase()) {
+            case "clients" -> ImportService.Entity.CLIENTS;
+            case "appointments" -> ImportService.Entity.APPOINTMENTS;
+            default -> null;
+        };
+        if (target == null) {
+            return ResponseEntity.badRequest().build();
+        }
+        String contentType = request.getContentType() == null ? "" : request.getContentType().toLowerCase();
+        ImportService.Format format;
+        if (contentType.contains("csv")) {
+            format = ImportService.Format.CSV;
+        } else if (contentType.contains("ndjson") || contentType.contains("jsonl")) {
+            format = ImportService.Format.NDJSON;
+        } else {
+            return ResponseEntity.status(HttpStatus.UNSUPPORTED_MEDIA_TYPE).build();
+        }
+        return ResponseEntity.ok(importService.importRows(target, format, request.getInputStream()));
+    }
+}
@@ -1,15 +1,25 @@
 package barbershopAPI.barbershopAPI.controllers;
 
+import barbershopAPI.barbershopAPI.config.QueryBudget;
+import barbershopAPI.barbershopAPI.dto.NotificationChanges;
 import barbershopAPI.barbershopAPI.entities.Notification;
+import barbershopAPI.barbershopAPI.entities.NotificationEntityType;
+import barbershopAPI.barbershopAPI.entities.NotificationIcon;
+import barbershopAPI.barbershopAPI.entities.NotificationRef;
 import barbershopAPI.barbershopAPI.services.NotificationService;
+import barbershopAPI.barbershopAPI.services.events.NotificationStreamService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import java.util.List;
 import java.util.Optional;
 
 @RestController
+@Lazy(false)
 @RequestMapping("/api/notifications")
 @CrossOrigin(origins = "*")
 public class NotificationController {
@@ -17,8 +27,12 @@ public class NotificationController {
     @Autowired
     private NotificationService notificationService;
     
+    @Autowired
+    private NotificationStreamService notificationStreamService;
+    
     // Get all notifications
     @GetMapping
+    @QueryBudget(1)
     public ResponseEntity<List<Notification>> getAllNotifications() {
         List<Notification> notifications = notificationService.getAllNotifications();
         return ResponseEntity.ok(notifications);
@@ -26,6 +40,7 @@ public class NotificationController {
     
     // Get unread notifications
     @GetMapping("/unread")
+    @QueryBudget(1)
     public ResponseEntity<List<Notification>> getUnreadNotifications() {
         List<Notification> notifications = notificationService.getUnreadNotifications();
         return ResponseEntity.ok(notifications);
@@ -33,13 +48,60 @@ public class NotificationController {
     
     // Get unread count
     @GetMapping("/unread/count")
+    @QueryBudget(2)
     public ResponseEntity<Long> getUnreadCount() {
         long count = notificationService.getUnreadCount();
         return ResponseEntity.ok(count);
     }
     
+    // Get changes since a sync cursor (delta sync)
+    @GetMapping("/changes")
+    @QueryBudget(5)
+    public ResponseEntity<NotificationChanges> getChanges(
+            @RequestParam long since,
+            @RequestParam(defaultValue = "500") int limit) {
+        if (limit < 1 || limit > 5000) {
+            return ResponseEntity.badRequest().build();
+        }
+        return ResponseEntity.ok(notificationService.getChangesSince(since, limit));
+    }
+    
+    // Get notifications about one record, e.g. ?type=APPOINTMENT&id=a1b2
+    @GetMapping("/by-entity")
+    @QueryBudget(1)
+    public ResponseEntity<List<Notification>> getNotificationsByEntity(
+            @RequestParam NotificationEntityType type,
+            @RequestParam String id) {
+        return ResponseEntity.ok(notificationService.getNotificationsByRef(new NotificationRef(type, id)));
+    }
+    
+    // Mark all notifications about one record as read
+    @PutMapping("/by-entity/read")
+    @QueryBudget(2)
+    public ResponseEntity<Integer> markAsReadByEntity(
+            @RequestParam NotificationEntityType type,
+            @RequestParam String id) {
+        return ResponseEntity.ok(notificationService.markAsReadByRef(new NotificationRef(type, id)));
+    }
+    
+    // Delete all notifications about one record
+    @DeleteMapping("/by-entity")
+    @QueryBudget(2)
+    public ResponseEntity<Integer> deleteByEntity(
+            @RequestParam NotificationEntityType type,
+            @RequestParam String id) {
+        return ResponseEntity.ok(notificationService.deleteByRef(new NotificationRef(type, id)));
+    }
+    
+    // Stream change events (created, read, deleted, ...) from every backend node
+    @GetMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamNotificationEvents() {
+        return notificationStreamService.subscribe();
+    }
+    
     // Get notification by ID
     @GetMapping("/{id}")
+    @QueryBudget(1)
     public ResponseEntity<Notification> getNotificationById(@PathVariable Long id) {
         Optional<Notification> notification = notificationService.getNotificationById(id);
         return notification.map(ResponseEntity::ok)
@@ -48,6 +110,7 @@ public class NotificationController {
     
     // Mark notification as read
     @PutMapping("/{id}/read")
+    @QueryBudget(3)
     public ResponseEntity<Void> markAsRead(@PathVariable Long id) {
         boolean success = notificationService.markAsRead(id);
         return success ? ResponseEntity.ok().build() : ResponseEntity.notFound().build();
@@ -55,6 +118,7 @@ public class NotificationController {
     
     // Mark all notifications as read
     @PutMapping("/read-all")
+    @QueryBudget(2)
     public ResponseEntity<Integer> markAllAsRead() {
         int updated = notificationService.markAllAsRead();
         return ResponseEntity.ok(updated);
@@ -62,27 +126,38 @@ public class NotificationController {
     
     // Delete notification
     @DeleteMapping("/{id}")
+    @QueryBudget(4)
     public ResponseEntity<Void> deleteNotification(@PathVariable Long id) {
         boolean success = notificationService.deleteNotification(id);
         return success ? ResponseEntity.ok().build() : ResponseEntity.notFound().build();
     }
     
-    // Delete old notifications
+    // Delete expired notifications
     @DeleteMapping("/cleanup")
+    @QueryBudget(value = 1000, detectRepeats = false)
     public ResponseEntity<Integer> deleteOldNotifications() {
         int deleted = notificationService.deleteOldNotifications();
         return ResponseEntity.ok(deleted);
     }
     
-    // Create notification (for testing or admin purposes)
+    // Create notification (for testing or admin purposes).
+    // Retries carrying the same Idempotency-Key header (or idempotencyKey field) get the original back.
     @PostMapping
-    public ResponseEntity<Notification> createNotification(@RequestBody CreateNotificationRequest request) {
+    @QueryBudget(4)
+    public ResponseEntity<Notification> createNotification(
+            @RequestBody CreateNotificationRequest request,
+            @RequestHeader(value = "Idempotency-Key", required = false) String idempotencyKey) {
+        String icon = request.getIcon();
+        if (icon != null && !icon.isBlank() && NotificationIcon.fromName(icon) == null) {
+            return ResponseEntity.badRequest().build();
+        }
         Notification notification = notificationService.createNotification(
             request.getType(),
             request.getTitle(),
             request.getMessage(),
             request.getIcon(),
-            request.getActionUrl()
+            request.getActionUrl(),
+            idempotencyKey != null ? idempotencyKey : request.getIdempotencyKey()
         );
         return ResponseEntity.ok(notification);
     }
@@ -94,6 +169,7 @@ public class NotificationController {
         private String message;
         private String icon;
         private String actionUrl;
+        private String idempotencyKey;
         
         // Getters and Setters
         public Notification.NotificationType getType() {
@@ -135,5 +211,13 @@ public class NotificationController {
         public void setActionUrl(String actionUrl) {
             this.actionUrl = actionUrl;
         }
+        
+        public String getIdempotencyKey() {
+            return idempotencyKey;
+        }
+        
+        public void setIdempotencyKey(String idempotencyKey) {
+            this.idempotencyKey = idempotencyKey;
+        }
     }
 }
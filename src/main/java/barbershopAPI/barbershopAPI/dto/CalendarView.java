@@ -0,0 +1,192 @@
+package barbershopAPI.barbershopAPI.dto;
+
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+// Response of GET /api/calendar: everything the calendar page needs for a range,
+// per barber. Entry fields match the frontend Appointment / WorkingHours / TimeOff models.
+public class CalendarView {
+    
+    private LocalDateTime from;
+    private LocalDateTime to;
+    private Map<Long, BarberCalendar> barbers = new LinkedHashMap<>();
+    
+    public CalendarView(LocalDateTime from, LocalDateTime to) {
+        this.from = from;
+        this.to = to;
+    }
+    
+    // Getters and Setters
+    public LocalDateTime getFrom() {
+        return from;
+    }
+    
+    public void setFrom(LocalDateTime from) {
+        this.from = from;
+    }
+    
+    public LocalDateTime getTo() {
+        return to;
+    }
+    
+    public void setTo(LocalDateTime to) {
+        this.to = to;
+    }
+    
+    public Map<Long, BarberCalendar> getBarbers() {
+        return barbers;
+    }
+    
+    public void setBarbers(Map<Long, BarberCalendar> barbers) {
+        this.barbers = barbers;
+    }
+    
+    public static class BarberCalendar {
+        private final List<Appointment> appointments = new ArrayList<>();
+        private final List<WorkingHours> workingHours = new ArrayList<>();
+        private final List<TimeOff> timeOff = new ArrayList<>();
+        
+        public List<Appointment> getAppointments() {
+            return appointments;
+        }
+        
+        public List<WorkingHours> getWorkingHours() {
+            return workingHours;
+        }
+        
+        public List<TimeOff> getTimeOff() {
+            return timeOff;
+        }
+    }
+    
+    public static class Appointment {
+        private final String id;
+        private final long barberId;
+        private final Long serviceId;
+        private final Long clientId;
+        private final LocalDateTime startsAt;
+        private final LocalDateTime endsAt;
+        private final String status;
+        private final String notes;
+        
+        public Appointment(String id, long barberId, Long serviceId, Long clientId,
+                           LocalDateTime startsAt, LocalDateTime endsAt, String status, String notes) {
+            this.id = id;
+            this.barberId = barberId;
+            this.serviceId = serviceId;
+            this.clientId = clientId;
+            this.startsAt = startsAt;
+            this.endsAt = endsAt;
+            this.status = status;
+            this.notes = notes;
+        }
+        
+        public String getId() {
+            return id;
+        }
+        
+        public long getBarberId() {
+            return barberId;
+        }
+        
+        public Long getServiceId() {
+            return serviceId;
+        }
+        
+        public Long getClientId() {
+            return clientId;
+        }
+        
+        public LocalDateTime getStartsAt() {
+            return startsAt;
+        }
+        
+        public LocalDateTime getEndsAt() {
+            return endsAt;
+        }
+        
+        public String getStatus() {
+            return status;
+        }
+        
+        public String getNotes() {
+            return notes;
+        }
+    }
+    
+    public static class WorkingHours {
+        private final long id;
+        private final long barberId;
+        private final int dayOfWeek;
+        private final LocalTime startTime;
+        private final LocalTime endTime;
+        
+        public WorkingHours(long id, long barberId, int dayOfWeek, LocalTime startTime, LocalTime endTime) {
+            this.id = id;
+            this.barberId = barberId;
+            this.dayOfWeek = dayOfWeek;
+            this.startTime = startTime;
+            this.endTime = endTime;
+        }
+        
+        public long getId() {
+            return id;
+        }
+        
+        public long getBarberId() {
+            return barberId;
+        }
+        
+        public int getDayOfWeek() {
+            return dayOfWeek;
+        }
+        
+        public LocalTime getStartTime() {
+            return startTime;
+        }
+        
+        public LocalTime getEndTime() {
+            return endTime;
+        }
+    }
+    
+    public static class TimeOff {
+        private final long id;
+        private final long barberId;
+        private final LocalDateTime startsAt;
+        private final LocalDateTime endsAt;
+        private final String reason;
+        
+        public TimeOff(long id, long barberId, LocalDateTime startsAt, LocalDateTime endsAt, String reason) {
+            this.id = id;
+            this.barberId = barberId;
+            this.startsAt = startsAt;
+            this.endsAt = endsAt;
+            this.reason = reason;
+        }
+        
+        public long getId() {
+            return id;
+        }
+        
+        public long getBarberId() {
+            return barberId;
+        }
+        
+        public LocalDateTime getStartsAt() {
+            return startsAt;
+        }
+        
+        public LocalDateTime getEndsAt() {
+            return endsAt;
+        }
+        
+        public String getReason() {
+            return reason;
+        }
+    }
+}
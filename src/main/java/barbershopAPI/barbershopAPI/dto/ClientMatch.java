@@ -0,0 +1,27 @@
+package barbershopAPI.barbershopAPI.dto;
+
+// Client returned by GET /api/clients/search; same fields as the frontend Client model
+public class ClientMatch {
+    
+    private final long id;
+    private final String name;
+    private final String phone;
+    
+    public ClientMatch(long id, String name, String phone) {
+        this.id = id;
+        this.name = name;
+        this.phone = phone;
+    }
+    
+    public long getId() {
+        return id;
+    }
+    
+    public String getName() {
+        return name;
+    }
+    
+    public String getPhone() {
+        return phone;
+    }
+}
@@ -0,0 +1,93 @@
+package barbershopAPI.barbershopAPI.dto;
+
+import barbershopAPI.barbershopAPI.entities.Notification;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+
+// Compact wire form of a Notification, used for binary (CBOR) responses:
+// one-letter field names, the persisted type code (stable across enum reordering) and epoch millis for timestamps.
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class CompactNotification {
+    
+    @JsonProperty("i")
+    private final Long id;
+    
+    @JsonProperty("t")
+    private final int type;
+    
+    @JsonProperty("h")
+    private final String title;
+    
+    @JsonProperty("m")
+    private final String message;
+    
+    @JsonProperty("c")
+    private final String icon;
+    
+    @JsonProperty("u")
+    private final String actionUrl;
+    
+    @JsonProperty("r")
+    private final boolean read;
+    
+    @JsonProperty("a")
+    private final long createdAt;
+    
+    @JsonProperty("b")
+    private final long updatedAt;
+    
+    public CompactNotification(Notification notification) {
+        this.id = notification.getId();
+        this.type = notification.getType().getCode();
+        this.title = notification.getTitle();
+        this.message = notification.getMessage();
+        this.icon = notification.getIcon();
+        this.actionUrl = notification.getActionUrl();
+        this.read = notification.getReadStatus();
+        this.createdAt = toEpochMillis(notification.getCreatedAt());
+        this.updatedAt = toEpochMillis(notification.getUpdatedAt());
+    }
+    
+    private static long toEpochMillis(LocalDateTime dateTime) {
+        return dateTime == null ? 0 : dateTime.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+    
+    public Long getId() {
+        return id;
+    }
+    
+    public int getType() {
+        return type;
+    }
+    
+    public String getTitle() {
+        return title;
+    }
+    
+    public String getMessage() {
+        return message;
+    }
+    
+    public String getIcon() {
+        return icon;
+    }
+    
+    public String getActionUrl() {
+        return actionUrl;
+    }
+    
+    public boolean isRead() {
+        return read;
+    }
+    
+    public long getCreatedAt() {
+        return createdAt;
+    }
+    
+    public long getUpdatedAt() {
+        return updatedAt;
+    }
+}
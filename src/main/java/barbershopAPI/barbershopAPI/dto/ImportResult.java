@@ -0,0 +1,82 @@
+package barbershopAPI.barbershopAPI.dto;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// Response of POST /api/import. Only the first maxReportedErrors row errors are listed,
+// so the response stays small however bad the file is; `failed` always has the full count.
+public class ImportResult {
+    
+    private final String entity;
+    private final int maxReportedErrors;
+    private long processed;
+    private long inserted;
+    private long failed;
+    private boolean errorsTruncated;
+    private final List<RowError> errors = new ArrayList<>();
+    
+    public ImportResult(String entity, int maxReportedErrors) {
+        this.entity = entity;
+        this.maxReportedErrors = maxReportedErrors;
+    }
+    
+    public void rowProcessed() {
+        processed++;
+    }
+    
+    public void rowsInserted(int count) {
+        inserted += count;
+    }
+    
+    public void rowFailed(long line, String message) {
+        failed++;
+        if (errors.size() < maxReportedErrors) {
+            errors.add(new RowError(line, message));
+        } else {
+            errorsTruncated = true;
+        }
+    }
+    
+    // Getters
+    public String getEntity() {
+        return entity;
+    }
+    
+    public long getProcessed() {
+        return processed;
+    }
+    
+    public long getInserted() {
+        return inserted;
+    }
+    
+    public long getFailed() {
+        return failed;
+    }
+    
+    public boolean isErrorsTruncated() {
+        return errorsTruncated;
+    }
+    
+    public List<RowError> getErrors() {
+        return errors;
+    }
+    
+    public static class RowError {
+        private final long line;
+        private final String message;
+        
+        public RowError(long line, String message) {
+            this.line = line;
+            this.message = message;
+        }
+        
+        public long getLine() {
+            return line;
+        }
+        
+        public String getMessage() {
+            return message;
+        }
+    }
+}
@@ -0,0 +1,96 @@
+package barbershopAPI.barbershopAPI.dto;
+
+import barbershopAPI.barbershopAPI.entities.Notification;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// Response of GET /api/notifications/changes.
+// Clients apply created/read/deleted and pass `version` as `since` on the next call;
+// `version` is an opaque cursor (a transaction horizon), not a notification version.
+// When resyncRequired is set the requested cursor is no longer covered by the change log:
+// reload the full list and continue from `version`.
+public class NotificationChanges {
+    
+    private long version;
+    private boolean resyncRequired;
+    private boolean hasMore;
+    private List<Notification> created = new ArrayList<>();
+    private List<ReadChange> read = new ArrayList<>();
+    private List<Long> deleted = new ArrayList<>();
+    
+    public static NotificationChanges resync(long version) {
+        NotificationChanges changes = new NotificationChanges();
+        changes.version = version;
+        changes.resyncRequired = true;
+        return changes;
+    }
+    
+    // Getters and Setters
+    public long getVersion() {
+        return version;
+    }
+    
+    public void setVersion(long version) {
+        this.version = version;
+    }
+    
+    public boolean isResyncRequired() {
+        return resyncRequired;
+    }
+    
+    public void setResyncRequired(boolean resyncRequired) {
+        this.resyncRequired = resyncRequired;
+    }
+    
+    public boolean isHasMore() {
+        return hasMore;
+    }
+    
+    public void setHasMore(boolean hasMore) {
+        this.hasMore = hasMore;
+    }
+    
+    public List<Notification> getCreated() {
+        return created;
+    }
+    
+    public void setCreated(List<Notification> created) {
+        this.created = created;
+    }
+    
+    public List<ReadChange> getRead() {
+        return read;
+    }
+    
+    public void setRead(List<ReadChange> read) {
+        this.read = read;
+    }
+    
+    public List<Long> getDeleted() {
+        return deleted;
+    }
+    
+    public void setDeleted(List<Long> deleted) {
+        this.deleted = deleted;
+    }
+    
+    // Read-state change of a notification the client already has
+    public static class ReadChange {
+        private final long id;
+        private final boolean readStatus;
+        
+        public ReadChange(long id, boolean readStatus) {
+            this.id = id;
+            this.readStatus = readStatus;
+        }
+        
+        public long getId() {
+            return id;
+        }
+        
+        public boolean isReadStatus() {
+            return readStatus;
+        }
+    }
+}
@@ -0,0 +1,91 @@
+package barbershopAPI.barbershopAPI.entities;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+
+// Outbound message that exhausted its retries or failed permanently
+@Entity
+@Table(name = "delivery_dead_letters")
+public class DeliveryDeadLetter {
+    
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+    
+    @Column(name = "notification_id")
+    private Long notificationId;
+    
+    @Column(name = "channel", nullable = false, length = 20)
+    private String channel;
+    
+    @Column(name = "recipient", nullable = false, length = 255)
+    private String recipient;
+    
+    @Column(name = "subject", length = 255)
+    private String subject;
+    
+    @Column(name = "body", nullable = false, columnDefinition = "TEXT")
+    private String body;
+    
+    @Column(name = "attempts", nullable = false)
+    private int attempts;
+    
+    @Column(name = "last_error", columnDefinition = "TEXT")
+    private String lastError;
+    
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+    
+    // Constructors
+    public DeliveryDeadLetter() {
+        this.createdAt = LocalDateTime.now();
+    }
+    
+    public DeliveryDeadLetter(Long notificationId, String channel, String recipient, String subject, String body, int attempts, String lastError) {
+        this();
+        this.notificationId = notificationId;
+        this.channel = channel;
+        this.recipient = recipient;
+        this.subject = subject;
+        this.body = body;
+        this.attempts = attempts;
+        this.lastError = lastError;
+    }
+    
+    // Getters
+    public Long getId() {
+        return id;
+    }
+    
+    public Long getNotificationId() {
+        return notificationId;
+    }
+    
+    public String getChannel() {
+        return channel;
+    }
+    
+    public String getRecipient() {
+        return recipient;
+    }
+    
+    public String getSubject() {
+        return subject;
+    }
+    
+    public String getBody() {
+        return body;
+    }
+    
+    public int getAttempts() {
+        return attempts;
+    }
+    
+    public String getLastError() {
+        return lastError;
+    }
+    
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+}
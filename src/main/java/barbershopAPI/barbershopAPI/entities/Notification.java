@@ -11,8 +11,8 @@ public class Notification {
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
     
-    @Enumerated(EnumType.STRING)
-    @Column(name = "type", nullable = false)
+    @Convert(converter = NotificationTypeConverter.class)
+    @Column(name = "type_code", nullable = false)
     private NotificationType type;
     
     @Column(name = "title", nullable = false, length = 255)
@@ -21,29 +21,75 @@ public class Notification {
     @Column(name = "message", nullable = false, columnDefinition = "TEXT")
     private String message;
     
-    @Column(name = "icon", nullable = false, length = 50)
-    private String icon;
+    @Convert(converter = NotificationIconConverter.class)
+    @Column(name = "icon_code", nullable = false)
+    private NotificationIcon icon;
     
     @Column(name = "action_url", length = 500)
     private String actionUrl;
     
     @Column(name = "read_status", nullable = false)
-    private Boolean readStatus = false;
+    private boolean readStatus;
     
     @Column(name = "created_at", nullable = false)
     private LocalDateTime createdAt;
     
-    @Column(name = "updated_at", nullable = false)
+    // Maintained by the update_notifications_updated_at trigger only
+    @Column(name = "updated_at", nullable = false, insertable = false, updatable = false)
     private LocalDateTime updatedAt;
     
+    @Column(name = "idempotency_key", length = 100)
+    private String idempotencyKey;
+    
+    @Column(name = "expires_at", nullable = false)
+    private LocalDateTime expiresAt;
+    
+    // Record the notification is about (see NotificationRef), null for general notifications
+    @Convert(converter = NotificationEntityTypeConverter.class)
+    @Column(name = "entity_type")
+    private NotificationEntityType entityType;
+    
+    @Column(name = "entity_id", length = 64)
+    private String entityId;
+    
+    // Codes are persisted in notifications.type_code (notification_types table): never renumber, only append,
+    // and add the new code to notification_types in a migration
     public enum NotificationType {
-        APPOINTMENT, CLIENT, SERVICE, SYSTEM
+        APPOINTMENT(1, NotificationIcon.EVENT),
+        CLIENT(2, NotificationIcon.PERSON_ADD),
+        SERVICE(3, NotificationIcon.BUILD),
+        SYSTEM(4, NotificationIcon.INFO);
+        
+        private final short code;
+        private final NotificationIcon defaultIcon;
+        
+        NotificationType(int code, NotificationIcon defaultIcon) {
+            this.code = (short) code;
+            this.defaultIcon = defaultIcon;
+        }
+        
+        public short getCode() {
+            return code;
+        }
+        
+        public NotificationIcon getDefaultIcon() {
+            return defaultIcon;
+        }
+        
+        public static NotificationType fromCode(short code) {
+            for (NotificationType type : values()) {
+                if (type.code == code) {
+                    return type;
+                }
+            }
+            throw new IllegalArgumentException("Unknown notification type code: " + code);
+        }
     }
     
     // Constructors
     public Notification() {
         this.createdAt = LocalDateTime.now();
-        this.updatedAt = LocalDateTime.now();
+        this.updatedAt = this.createdAt;
     }
     
     public Notification(NotificationType type, String title, String message, String icon) {
@@ -51,7 +97,7 @@ public class Notification {
         this.type = type;
         this.title = title;
         this.message = message;
-        this.icon = icon;
+        this.icon = NotificationIcon.resolve(icon, type);
     }
     
     public Notification(NotificationType type, String title, String message, String icon, String actionUrl) {
@@ -59,6 +105,25 @@ public class Notification {
         this.actionUrl = actionUrl;
     }
     
+    // Detached copy, for changing what one caller sees of an instance other callers share
+    public Notification copy() {
+        Notification copy = new Notification();
+        copy.id = id;
+        copy.type = type;
+        copy.title = title;
+        copy.message = message;
+        copy.icon = icon;
+        copy.actionUrl = actionUrl;
+        copy.readStatus = readStatus;
+        copy.createdAt = createdAt;
+        copy.updatedAt = updatedAt;
+        copy.idempotencyKey = idempotencyKey;
+        copy.expiresAt = expiresAt;
+        copy.entityType = entityType;
+        copy.entityId = entityId;
+        return copy;
+    }
+    
     // Getters and Setters
     public Long getId() {
         return id;
@@ -93,11 +158,11 @@ public class Notification {
     }
     
     public String getIcon() {
-        return icon;
+        return icon == null ? null : icon.getName();
     }
     
     public void setIcon(String icon) {
-        this.icon = icon;
+        this.icon = NotificationIcon.resolve(icon, type);
     }
     
     public String getActionUrl() {
@@ -108,11 +173,11 @@ public class Notification {
         this.actionUrl = actionUrl;
     }
     
-    public Boolean getReadStatus() {
+    public boolean getReadStatus() {
         return readStatus;
     }
     
-    public void setReadStatus(Boolean readStatus) {
+    public void setReadStatus(boolean readStatus) {
         this.readStatus = readStatus;
     }
     
@@ -132,8 +197,40 @@ public class Notification {
         this.updatedAt = updatedAt;
     }
     
-    @PreUpdate
-    public void preUpdate() {
-        this.updatedAt = LocalDateTime.now();
+    public String getIdempotencyKey() {
+        return idempotencyKey;
+    }
+    
+    public void setIdempotencyKey(String idempotencyKey) {
+        this.idempotencyKey = idempotencyKey;
+    }
+    
+    public LocalDateTime getExpiresAt() {
+        return expiresAt;
+    }
+    
+    public void setExpiresAt(LocalDateTime expiresAt) {
+        this.expiresAt = expiresAt;
+    }
+    
+    public NotificationEntityType getEntityType() {
+        return entityType;
+    }
+    
+    public void setEntityType(NotificationEntityType entityType) {
+        this.entityType = entityType;
+    }
+    
+    public String getEntityId() {
+        return entityId;
+    }
+    
+    public void setEntityId(String entityId) {
+        this.entityId = entityId;
+    }
+    
+    public void setRef(NotificationRef ref) {
+        this.entityType = ref == null ? null : ref.getType();
+        this.entityId = ref == null ? null : ref.getId();
     }
 }
@@ -0,0 +1,62 @@
+package barbershopAPI.barbershopAPI.entities;
+
+import jakarta.persistence.*;
+import org.hibernate.annotations.Immutable;
+
+import java.time.LocalDateTime;
+
+// Row of the notification change log, written only by the database trigger
+@Entity
+@Immutable
+@Table(name = "notification_changes")
+public class NotificationChange {
+    
+    public static final String INSERTED = "I";
+    public static final String UPDATED = "U";
+    public static final String DELETED = "D";
+    
+    @Id
+    @Column(name = "version")
+    private Long version;
+    
+    @Column(name = "notification_id", nullable = false)
+    private Long notificationId;
+    
+    @Column(name = "change_type", nullable = false, length = 1)
+    private String changeType;
+    
+    @Column(name = "read_status")
+    private Boolean readStatus;
+    
+    @Column(name = "changed_at", nullable = false)
+    private LocalDateTime changedAt;
+    
+    // Id of the transaction that wrote the change; the sync cursor (see V10)
+    @Column(name = "txid", nullable = false)
+    private Long txid;
+    
+    // Getters
+    public Long getVersion() {
+        return version;
+    }
+    
+    public Long getNotificationId() {
+        return notificationId;
+    }
+    
+    public String getChangeType() {
+        return changeType;
+    }
+    
+    public Boolean getReadStatus() {
+        return readStatus;
+    }
+    
+    
+    public LocalDateTime getChangedAt() {
+        return changedAt;
+    }    
+    public Long getTxid() {
+        return txid;
+    }
+}
@@ -0,0 +1,28 @@
+package barbershopAPI.barbershopAPI.entities;
+
+// Kind of record a notification refers to, stored as a smallint code (notifications.entity_type).
+// Codes are persisted: never renumber, only append.
+public enum NotificationEntityType {
+    APPOINTMENT(1),
+    CLIENT(2),
+    SERVICE(3);
+    
+    private final short code;
+    
+    NotificationEntityType(int code) {
+        this.code = (short) code;
+    }
+    
+    public short getCode() {
+        return code;
+    }
+    
+    public static NotificationEntityType fromCode(short code) {
+        for (NotificationEntityType type : values()) {
+            if (type.code == code) {
+                return type;
+            }
+        }
+        throw new IllegalArgumentException("Unknown notification entity type code: " + code);
+    }
+}
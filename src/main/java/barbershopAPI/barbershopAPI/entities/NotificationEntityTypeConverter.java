@@ -0,0 +1,19 @@
+package barbershopAPI.barbershopAPI.entities;
+
+import jakarta.persistence.AttributeConverter;
+import jakarta.persistence.Converter;
+
+// Stores NotificationEntityType as its smallint code (notifications.entity_type)
+@Converter
+public class NotificationEntityTypeConverter implements AttributeConverter<NotificationEntityType, Short> {
+    
+    @Override
+    public Short convertToDatabaseColumn(NotificationEntityType type) {
+        return type == null ? null : type.getCode();
+    }
+    
+    @Override
+    public NotificationEntityType convertToEntityAttribute(Short code) {
+        return code == null ? null : NotificationEntityType.fromCode(code);
+    }
+}
@@ -0,0 +1,61 @@
+package barbershopAPI.barbershopAPI.entities;
+
+// Icons a notification can show, stored as a smallint code (notification_icons table).
+// Codes are persisted: never renumber, only append.
+public enum NotificationIcon {
+    NOTIFICATIONS(1, "notifications"),
+    INFO(2, "info"),
+    PERSON_ADD(3, "person_add"),
+    EVENT(4, "event"),
+    EVENT_BUSY(5, "event_busy"),
+    EVENT_AVAILABLE(6, "event_available"),
+    BUILD(7, "build"),
+    EDIT(8, "edit");
+    
+    private final short code;
+    private final String name;
+    
+    NotificationIcon(int code, String name) {
+        this.code = (short) code;
+        this.name = name;
+    }
+    
+    public short getCode() {
+        return code;
+    }
+    
+    public String getName() {
+        return name;
+    }
+    
+    public static NotificationIcon fromCode(short code) {
+        for (NotificationIcon icon : values()) {
+            if (icon.code == code) {
+                return icon;
+            }
+        }
+        throw new IllegalArgumentException("Unknown notification icon code: " + code);
+    }
+    
+    // Icon by its Material name, or null when the name is not in the table
+    public static NotificationIcon fromName(String name) {
+        for (NotificationIcon icon : values()) {
+            if (icon.name.equals(name)) {
+                return icon;
+            }
+        }
+        return null;
+    }
+    
+    // Icon by its Material name; no name means the type's default icon, an unknown name is rejected
+    public static NotificationIcon resolve(String name, Notification.NotificationType type) {
+        if (name == null || name.isBlank()) {
+            return type != null ? type.getDefaultIcon() : NOTIFICATIONS;
+        }
+        NotificationIcon icon = fromName(name);
+        if (icon == null) {
+            throw new IllegalArgumentException("Unknown notification icon: " + name);
+        }
+        return icon;
+    }
+}
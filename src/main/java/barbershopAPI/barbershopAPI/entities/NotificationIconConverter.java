@@ -0,0 +1,19 @@
+package barbershopAPI.barbershopAPI.entities;
+
+import jakarta.persistence.AttributeConverter;
+import jakarta.persistence.Converter;
+
+// Stores NotificationIcon as its smallint code (notifications.icon_code)
+@Converter
+public class NotificationIconConverter implements AttributeConverter<NotificationIcon, Short> {
+    
+    @Override
+    public Short convertToDatabaseColumn(NotificationIcon icon) {
+        return icon == null ? null : icon.getCode();
+    }
+    
+    @Override
+    public NotificationIcon convertToEntityAttribute(Short code) {
+        return code == null ? null : NotificationIcon.fromCode(code);
+    }
+}
@@ -0,0 +1,56 @@
+package barbershopAPI.barbershopAPI.entities;
+
+import java.util.Objects;
+
+// Typed reference from a notification to the record it is about, e.g. appointment "a1b2"
+public final class NotificationRef {
+    
+    private final NotificationEntityType type;
+    private final String id;
+    
+    public NotificationRef(NotificationEntityType type, String id) {
+        this.type = Objects.requireNonNull(type, "type");
+        this.id = Objects.requireNonNull(id, "id");
+    }
+    
+    public static NotificationRef appointment(String appointmentId) {
+        return new NotificationRef(NotificationEntityType.APPOINTMENT, appointmentId);
+    }
+    
+    public static NotificationRef client(long clientId) {
+        return new NotificationRef(NotificationEntityType.CLIENT, String.valueOf(clientId));
+    }
+    
+    public static NotificationRef service(long serviceId) {
+        return new NotificationRef(NotificationEntityType.SERVICE, String.valueOf(serviceId));
+    }
+    
+    public NotificationEntityType getType() {
+        return type;
+    }
+    
+    public String getId() {
+        return id;
+    }
+    
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof NotificationRef other)) {
+            return false;
+        }
+        return type == other.type && id.equals(other.id);
+    }
+    
+    @Override
+    public int hashCode() {
+        return Objects.hash(type, id);
+    }
+    
+    @Override
+    public String toString() {
+        return type + ":" + id;
+    }
+}
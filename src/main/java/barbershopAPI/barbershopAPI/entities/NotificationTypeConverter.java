@@ -0,0 +1,19 @@
+package barbershopAPI.barbershopAPI.entities;
+
+import jakarta.persistence.AttributeConverter;
+import jakarta.persistence.Converter;
+
+// Stores NotificationType as its smallint code (notifications.type_code)
+@Converter
+public class NotificationTypeConverter implements AttributeConverter<Notification.NotificationType, Short> {
+    
+    @Override
+    public Short convertToDatabaseColumn(Notification.NotificationType type) {
+        return type == null ? null : type.getCode();
+    }
+    
+    @Override
+    public Notification.NotificationType convertToEntityAttribute(Short code) {
+        return code == null ? null : Notification.NotificationType.fromCode(code);
+    }
+}
@@ -0,0 +1,14 @@
+package barbershopAPI.barbershopAPI.repositories;
+
+import barbershopAPI.barbershopAPI.entities.DeliveryDeadLetter;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface DeliveryDeadLetterRepository extends JpaRepository<DeliveryDeadLetter, Long> {
+    
+    // Most recent dead letters first
+    List<DeliveryDeadLetter> findTop100ByOrderByCreatedAtDesc();
+}
@@ -0,0 +1,37 @@
+package barbershopAPI.barbershopAPI.repositories;
+
+import barbershopAPI.barbershopAPI.entities.NotificationChange;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface NotificationChangeRepository extends JpaRepository<NotificationChange, Long> {
+    
+    // Oldest transaction still in flight: every change below it is committed and visible
+    @Query(value = "SELECT CAST(CAST(pg_snapshot_xmin(pg_current_snapshot()) AS text) AS bigint)", nativeQuery = true)
+    long findSettledHorizon();
+    
+    // Cursors below this may have lost changes to retention
+    @Query(value = "SELECT COALESCE(MAX(pruned_before), 0) FROM notification_changes_pruned", nativeQuery = true)
+    long findPrunedBefore();
+    
+    // Changes of transactions in [since, horizon), in commit-safe order (see NotificationService.getChangesSince)
+    List<NotificationChange> findByTxidGreaterThanEqualAndTxidLessThanOrderByTxidAscVersionAsc(Long since, Long horizon, Pageable pageable);
+    
+    // Every change of one transaction
+    List<NotificationChange> findByTxidOrderByVersionAsc(Long txid);
+    
+    // Prune the log and raise the pruned watermark in the same statement; returns the rows
+    // deleted. Clients behind the watermark must resync.
+    @Query(value = "WITH pruned AS (DELETE FROM notification_changes WHERE changed_at < :cutoffDate RETURNING txid), "
+        + "watermark AS (UPDATE notification_changes_pruned "
+        + "SET pruned_before = GREATEST(pruned_before, (SELECT COALESCE(MAX(txid) + 1, 0) FROM pruned))) "
+        + "SELECT COUNT(*) FROM pruned", nativeQuery = true)
+    int deleteOldChanges(@Param("cutoffDate") LocalDateTime cutoffDate);
+}
@@ -1,6 +1,7 @@
 package barbershopAPI.barbershopAPI.repositories;
 
 import barbershopAPI.barbershopAPI.entities.Notification;
+import barbershopAPI.barbershopAPI.entities.NotificationEntityType;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
@@ -8,19 +9,31 @@ import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 @Repository
 public interface NotificationRepository extends JpaRepository<Notification, Long> {
     
-    // Find all notifications ordered by creation date (newest first)
-    List<Notification> findAllByOrderByCreatedAtDesc();
+    // Find all live notifications ordered by creation date (newest first)
+    List<Notification> findByExpiresAtAfterOrderByCreatedAtDesc(LocalDateTime now);
     
-    // Find unread notifications
-    List<Notification> findByReadStatusFalseOrderByCreatedAtDesc();
+    // Find live unread notifications
+    List<Notification> findByReadStatusFalseAndExpiresAtAfterOrderByCreatedAtDesc(LocalDateTime now);
     
-    // Count unread notifications
-    long countByReadStatusFalse();
+    // Count live unread notifications
+    long countByReadStatusFalseAndExpiresAtAfter(LocalDateTime now);
+    
+    // Find a live notification by ID
+    Optional<Notification> findByIdAndExpiresAtAfter(Long id, LocalDateTime now);
+    
+    // Read status of a live notification; empty when it does not exist or has expired
+    @Query("SELECT n.readStatus FROM Notification n WHERE n.id = :id AND n.expiresAt > :now")
+    Optional<Boolean> findReadStatus(@Param("id") Long id, @Param("now") LocalDateTime now);
+    
+    // Count the live unread notifications among the given ids
+    long countByIdInAndReadStatusFalseAndExpiresAtAfter(Collection<Long> ids, LocalDateTime now);
     
     // Find notifications by type
     List<Notification> findByTypeOrderByCreatedAtDesc(Notification.NotificationType type);
@@ -28,18 +41,61 @@ public interface NotificationRepository extends JpaRepository<Notification, Long
     // Find notifications created after a specific date
     List<Notification> findByCreatedAtAfterOrderByCreatedAtDesc(LocalDateTime date);
     
+    // Find live notifications about one record (appointment, client, service)
+    List<Notification> findByEntityTypeAndEntityIdAndExpiresAtAfterOrderByCreatedAtDesc(NotificationEntityType entityType, String entityId, LocalDateTime now);
+    
+    // Mark the unread notifications about one record as read; returns their ids
+    @Query(value = "UPDATE notifications SET read_status = true " +
+                   "WHERE entity_type = :entityType AND entity_id = :entityId AND read_status = false RETURNING id",
+           nativeQuery = true)
+    List<Long> markAsReadByEntity(@Param("entityType") short entityType, @Param("entityId") String entityId);
+    
+    // Same, leaving one notification about the record (the one just created) unread
+    @Query(value = "UPDATE notifications SET read_status = true " +
+                   "WHERE entity_type = :entityType AND entity_id = :entityId AND read_status = false AND id <> :exceptId RETURNING id",
+           nativeQuery = true)
+    List<Long> markAsReadByEntityExcept(@Param("entityType") short entityType, @Param("entityId") String entityId, @Param("exceptId") long exceptId);
+    
+    // Delete the notifications about one record; returns their ids
+    @Query(value = "DELETE FROM notifications WHERE entity_type = :entityType AND entity_id = :entityId RETURNING id",
+           nativeQuery = true)
+    List<Long> deleteByEntity(@Param("entityType") short entityType, @Param("entityId") String entityId);
+    
+    // Find notification created with an idempotency key
+    Optional<Notification> findByIdempotencyKey(String idempotencyKey);
+    
+    // Insert unless the idempotency key was already used; returns the new id or null on conflict
+    @Query(value = "INSERT INTO notifications (type_code, icon_code, title, message, action_url, read_status, created_at, expires_at, idempotency_key, entity_type, entity_id) " +
+                   "VALUES (:typeCode, :iconCode, :title, :message, :actionUrl, false, :createdAt, :expiresAt, :idempotencyKey, :entityType, :entityId) " +
+                   "ON CONFLICT (idempotency_key) WHERE idempotency_key IS NOT NULL DO NOTHING RETURNING id",
+           nativeQuery = true)
+    Long insertIfAbsent(@Param("typeCode") short typeCode,
+                        @Param("iconCode") short iconCode,
+                        @Param("title") String title,
+                        @Param("message") String message,
+                        @Param("actionUrl") String actionUrl,
+                        @Param("createdAt") LocalDateTime createdAt,
+                        @Param("expiresAt") LocalDateTime expiresAt,
+                        @Param("idempotencyKey") String idempotencyKey,
+                        @Param("entityType") Short entityType,
+                        @Param("entityId") String entityId);
+    
     // Mark all notifications as read
     @Modifying
-    @Query("UPDATE Notification n SET n.readStatus = true, n.updatedAt = CURRENT_TIMESTAMP WHERE n.readStatus = false")
+    @Query("UPDATE Notification n SET n.readStatus = true WHERE n.readStatus = false")
     int markAllAsRead();
     
-    // Mark specific notification as read
-    @Modifying
-    @Query("UPDATE Notification n SET n.readStatus = true, n.updatedAt = CURRENT_TIMESTAMP WHERE n.id = :id")
-    int markAsRead(@Param("id") Long id);
+    // Mark specific notifications as read; rows already read are left alone. Returns the ids that changed
+    @Query(value = "UPDATE notifications SET read_status = true WHERE id IN (:ids) AND read_status = false RETURNING id",
+           nativeQuery = true)
+    List<Long> markAsRead(@Param("ids") Collection<Long> ids);
     
-    // Delete old notifications (older than specified days)
+    // Delete one batch of expired notifications, oldest expiry first. Rows another node's reaper
+    // is deleting are skipped, so concurrent reapers take disjoint batches instead of waiting on each other
     @Modifying
-    @Query("DELETE FROM Notification n WHERE n.createdAt < :cutoffDate")
-    int deleteOldNotifications(@Param("cutoffDate") LocalDateTime cutoffDate);
+    @Query(value = "DELETE FROM notifications WHERE id IN " +
+                   "(SELECT id FROM notifications WHERE expires_at <= :now ORDER BY expires_at LIMIT :batchSize " +
+                   "FOR UPDATE SKIP LOCKED)",
+           nativeQuery = true)
+    int deleteExpiredBatch(@Param("now") LocalDateTime now, @Param("batchSize") int batchSize);
 }
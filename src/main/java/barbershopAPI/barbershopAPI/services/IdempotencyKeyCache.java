@@ -0,0 +1,52 @@
+package barbershopAPI.barbershopAPI.services;
+
+import barbershopAPI.barbershopAPI.services.events.NotificationEvent;
+import barbershopAPI.barbershopAPI.services.events.NotificationEventListener;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+// Bounded map of recently seen idempotency keys to the notification id they produced.
+// Lets retries be answered without touching the unique index; entries that fall out
+// are still caught by the database. Deletes on any node drop the keys of the deleted rows;
+// keys of purged (expired) rows stay until evicted, as NotificationService re-checks a cached
+// id before using it.
+@Component
+public class IdempotencyKeyCache implements NotificationEventListener {
+    
+    private final Map<String, Long> recentKeys;
+    
+    public IdempotencyKeyCache(@Value("${app.notifications.idempotency.cache-size:10000}") int capacity) {
+        this.recentKeys = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Long> eldest) {
+                return size() > capacity;
+            }
+        };
+    }
+    
+    public synchronized Long get(String key) {
+        return recentKeys.get(key);
+    }
+    
+    public synchronized void put(String key, Long notificationId) {
+        recentKeys.put(key, notificationId);
+    }
+    
+    public synchronized void remove(String key) {
+        recentKeys.remove(key);
+    }
+    
+    @Override
+    public synchronized void onNotificationEvent(NotificationEvent event) {
+        switch (event.getKind()) {
+            case DELETED -> recentKeys.values().removeIf(id -> id == event.getNotificationId());
+            // An outage does not say which rows went away
+            case RESYNC -> recentKeys.clear();
+            default -> {
+            }
+        }
+    }
+}
@@ -0,0 +1,44 @@
+package barbershopAPI.barbershopAPI.services;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+// Deletes expired notifications off the request path, a small batch per transaction,
+// so the table stays close to its live working set without long-running deletes.
+// Every node runs it; batches skip rows locked by another node's reaper (FOR UPDATE SKIP LOCKED).
+@Component
+@Lazy(false)
+public class NotificationReaper {
+    
+    private static final Logger log = LoggerFactory.getLogger(NotificationReaper.class);
+    
+    @Autowired
+    private NotificationService notificationService;
+    
+    @Value("${app.notifications.reaper.batch-size:500}")
+    private int batchSize;
+    
+    @Value("${app.notifications.reaper.max-batches-per-run:20}")
+    private int maxBatchesPerRun;
+    
+    @Scheduled(fixedDelayString = "${app.notifications.reaper.interval-ms:60000}")
+    public void reap() {
+        int total = 0;
+        for (int batch = 0; batch < maxBatchesPerRun; batch++) {
+            int deleted = notificationService.deleteExpiredBatch(batchSize);
+            total += deleted;
+            if (deleted < batchSize) {
+                break;
+            }
+        }
+        notificationService.pruneChangeLog();
+        if (total > 0) {
+            log.debug("Reaped {} expired notifications", total);
+        }
+    }
+}
@@ -1,149 +1,652 @@
 package barbershopAPI.barbershopAPI.services;
 
+import barbershopAPI.barbershopAPI.dto.NotificationChanges;
 import barbershopAPI.barbershopAPI.entities.Notification;
+import barbershopAPI.barbershopAPI.entities.NotificationChange;
+import barbershopAPI.barbershopAPI.entities.NotificationIcon;
+import barbershopAPI.barbershopAPI.entities.NotificationRef;
+import barbershopAPI.barbershopAPI.repositories.NotificationChangeRepository;
 import barbershopAPI.barbershopAPI.repositories.NotificationRepository;
+import barbershopAPI.barbershopAPI.services.delivery.DeliveryChannelType;
+import barbershopAPI.barbershopAPI.services.delivery.DeliveryMessage;
+import barbershopAPI.barbershopAPI.services.delivery.DeliveryService;
+import barbershopAPI.barbershopAPI.services.events.NotificationEvent;
+import barbershopAPI.barbershopAPI.services.events.NotificationEventListener;
+import barbershopAPI.barbershopAPI.services.events.NotificationEventPublisher;
+import jakarta.annotation.PostConstruct;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.time.Duration;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
 
 @Service
 @Transactional
-public class NotificationService {
+public class NotificationService implements NotificationEventListener {
+    
+    // Ids per UPDATE when flushing buffered mark-as-read writes
+    private static final int READ_FLUSH_CHUNK_SIZE = 1000;
     
     @Autowired
     private NotificationRepository notificationRepository;
     
+    @Autowired
+    private NotificationEventPublisher eventPublisher;
+    
+    @Autowired
+    private IdempotencyKeyCache idempotencyKeyCache;
+    
+    @Autowired
+    private NotificationChangeRepository changeRepository;
+    
+    @Autowired
+    private NotificationTtlProperties ttlProperties;
+    
+    @Autowired
+    private DeliveryService deliveryService;
+    
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+    
+    @Value("${app.notifications.changes.retention:30d}")
+    private Duration changesRetention;
+    
+    @Value("${app.notifications.cleanup.batch-size:500}")
+    private int cleanupBatchSize;
+    
+    // Buffered mark-as-read writes are flushed early once this many are pending
+    @Value("${app.notifications.read-flush.max-pending:500}")
+    private int readFlushMaxPending;
+    
+    // Ids marked as read through markAsRead but not yet written; overlaid on every read
+    private final Set<Long> pendingReads = ConcurrentHashMap.newKeySet();
+    private final ReentrantLock readFlushLock = new ReentrantLock();
+    
+    // Concurrent identical list/count reads share one query (app.notifications.read-collapsing.enabled).
+    // The key carries the mutation generation, bumped after every committed write on this node
+    // and on every change event from any node, so a read arriving after a write never joins a
+    // query that started before it.
+    @Value("${app.notifications.read-collapsing.enabled:true}")
+    private boolean readCollapsingEnabled;
+    
+    private final SingleFlight<ReadKey> readFlights = new SingleFlight<>();
+    private final AtomicLong mutationGeneration = new AtomicLong();
+    
+    // Collapsed reads run their query in a read-only transaction of its own (replica-routable);
+    // the calling methods have none, so callers waiting on a shared query hold no connection
+    private TransactionTemplate readOnlyTransaction;
+    
+    // Cleanup batches and read flushes commit one by one, so row locks and the events of a batch
+    // are released as it ends
+    private TransactionTemplate batchTransaction;
+    
+    @PostConstruct
+    void init() {
+        readOnlyTransaction = new TransactionTemplate(transactionManager);
+        readOnlyTransaction.setReadOnly(true);
+        batchTransaction = new TransactionTemplate(transactionManager);
+        batchTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+    
     // Create a new notification
     public Notification createNotification(Notification.NotificationType type, String title, String message, String icon) {
-        Notification notification = new Notification(type, title, message, icon);
-        return notificationRepository.save(notification);
+        return createNotification(type, title, message, icon, null, null);
     }
     
     // Create a new notification with action URL
     public Notification createNotification(Notification.NotificationType type, String title, String message, String icon, String actionUrl) {
+        return createNotification(type, title, message, icon, actionUrl, null);
+    }
+    
+    // Create a new notification with action URL and idempotency key.
+    // A repeated key returns the notification created the first time instead of inserting again.
+    public Notification createNotification(Notification.NotificationType type, String title, String message, String icon, String actionUrl, String idempotencyKey) {
+        return createNotification(type, title, message, icon, actionUrl, idempotencyKey, null);
+    }
+    
+    // Create a new notification about a specific record (ref may be null)
+    public Notification createNotification(Notification.NotificationType type, String title, String message, String icon, String actionUrl, String idempotencyKey, NotificationRef ref) {
+        return create(type, title, message, icon, actionUrl, idempotencyKey, ref).notification();
+    }
+    
+    // Side effects that must happen once per key (SMS, marking older notifications read) run only
+    // when this call inserted the row: of concurrent retries, only the one whose insert won.
+    private Created create(Notification.NotificationType type, String title, String message, String icon, String actionUrl, String idempotencyKey, NotificationRef ref) {
+        if (idempotencyKey == null || idempotencyKey.isBlank()) {
+            Notification notification = new Notification(type, title, message, icon, actionUrl);
+            notification.setRef(ref);
+            notification.setExpiresAt(notification.getCreatedAt().plus(ttlProperties.ttlFor(type)));
+            Notification saved = notificationRepository.save(notification);
+            eventPublisher.publish(NotificationEvent.Kind.CREATED, saved.getId());
+            mutated();
+            return new Created(saved, true);
+        }
+        
+        Long knownId = idempotencyKeyCache.get(idempotencyKey);
+        if (knownId != null) {
+            Optional<Notification> existing = notificationRepository.findById(knownId);
+            if (existing.isPresent()) {
+                return new Created(existing.get(), false);
+            }
+            // The original insert was rolled back or the row is gone
+            idempotencyKeyCache.remove(idempotencyKey);
+        }
+        
         Notification notification = new Notification(type, title, message, icon, actionUrl);
-        return notificationRepository.save(notification);
+        notification.setExpiresAt(notification.getCreatedAt().plus(ttlProperties.ttlFor(type)));
+        notification.setIdempotencyKey(idempotencyKey);
+        notification.setRef(ref);
+        Long insertedId = notificationRepository.insertIfAbsent(
+            type.getCode(), NotificationIcon.resolve(icon, type).getCode(), title, message, actionUrl,
+            notification.getCreatedAt(), notification.getExpiresAt(), idempotencyKey,
+            ref == null ? null : ref.getType().getCode(), ref == null ? null : ref.getId());
+        if (insertedId == null) {
+            Notification original = notificationRepository.findByIdempotencyKey(idempotencyKey)
+                .orElseThrow(() -> new IllegalStateException("Idempotency key conflict without a matching row: " + idempotencyKey));
+            idempotencyKeyCache.put(idempotencyKey, original.getId());
+            return new Created(original, false);
+        }
+        notification.setId(insertedId);
+        idempotencyKeyCache.put(idempotencyKey, insertedId);
+        eventPublisher.publish(NotificationEvent.Kind.CREATED, insertedId);
+        mutated();
+        return new Created(notification, true);
     }
     
-    // Get all notifications
+    // Get all notifications (collapsed; see readOnlyTransaction)
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public List<Notification> getAllNotifications() {
-        return notificationRepository.findAllByOrderByCreatedAtDesc();
+        return withPendingReads(collapsed("all",
+            () -> notificationRepository.findByExpiresAtAfterOrderByCreatedAtDesc(LocalDateTime.now())));
     }
     
     // Get unread notifications
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public List<Notification> getUnreadNotifications() {
-        return notificationRepository.findByReadStatusFalseOrderByCreatedAtDesc();
+        List<Notification> unread = collapsed("unread",
+            () -> notificationRepository.findByReadStatusFalseAndExpiresAtAfterOrderByCreatedAtDesc(LocalDateTime.now()));
+        if (pendingReads.isEmpty()) {
+            return unread;
+        }
+        return unread.stream().filter(notification -> !pendingReads.contains(notification.getId())).toList();
     }
     
-    // Get unread count
+    // Get unread count; the pending-read correction is per caller, only the base count is shared
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public long getUnreadCount() {
-        return notificationRepository.countByReadStatusFalse();
+        LocalDateTime now = LocalDateTime.now();
+        long count = collapsed("unreadCount", () -> notificationRepository.countByReadStatusFalseAndExpiresAtAfter(now));
+        if (!pendingReads.isEmpty()) {
+            List<Long> pending = List.copyOf(pendingReads);
+            count -= readOnlyTransaction.execute(
+                status -> notificationRepository.countByIdInAndReadStatusFalseAndExpiresAtAfter(pending, now));
+        }
+        return count;
     }
     
     // Get notification by ID
+    @Transactional(readOnly = true)
     public Optional<Notification> getNotificationById(Long id) {
-        return notificationRepository.findById(id);
+        return notificationRepository.findByIdAndExpiresAtAfter(id, LocalDateTime.now())
+            .map(found -> withPendingReads(List.of(found)).get(0));
     }
     
-    // Mark notification as read
+    // Get the live notifications about one record
+    @Transactional(readOnly = true)
+    public List<Notification> getNotificationsByRef(NotificationRef ref) {
+        return withPendingReads(notificationRepository.findByEntityTypeAndEntityIdAndExpiresAtAfterOrderByCreatedAtDesc(
+            ref.getType(), ref.getId(), LocalDateTime.now()));
+    }
+    
+    // Get changes (inserts, read-state changes, deletions) after a sync cursor
+    @Transactional(readOnly = true)
+    public NotificationChanges getChangesSince(long since, int limit) {
+        // The cursor is a transaction horizon, not a version: a version is taken at insert
+        // time, so a long transaction can commit a lower one after a client moved past it.
+        // Only transactions below the oldest one still in flight are returned.
+        long horizon = changeRepository.findSettledHorizon();
+        if (since < 0 || since < changeRepository.findPrunedBefore()) {
+            return NotificationChanges.resync(horizon);
+        }
+        
+        List<NotificationChange> log = changeRepository.findByTxidGreaterThanEqualAndTxidLessThanOrderByTxidAscVersionAsc(
+            since, horizon, PageRequest.of(0, limit));
+        boolean hasMore = log.size() == limit;
+        long next = horizon;
+        if (hasMore) {
+            // Pages end on a transaction boundary so the cursor never splits one
+            long lastTxid = log.get(log.size() - 1).getTxid();
+            if (log.get(0).getTxid() == lastTxid) {
+                // One transaction larger than a page (e.g. mark all as read) is returned whole
+                log = changeRepository.findByTxidOrderByVersionAsc(lastTxid);
+                next = lastTxid + 1;
+            } else {
+                int cut = log.size();
+                while (log.get(cut - 1).getTxid() == lastTxid) {
+                    cut--;
+                }
+                log = log.subList(0, cut);
+                next = lastTxid;
+            }
+        }
+        
+        // Collapse to the net effect per notification: first change tells whether it is new,
+        // last change tells its current state
+        Map<Long, NotificationChange> first = new LinkedHashMap<>();
+        Map<Long, NotificationChange> last = new LinkedHashMap<>();
+        for (NotificationChange change : log) {
+            first.putIfAbsent(change.getNotificationId(), change);
+            last.put(change.getNotificationId(), change);
+        }
+        
+        NotificationChanges changes = new NotificationChanges();
+        List<Long> createdIds = new ArrayList<>();
+        for (NotificationChange change : last.values()) {
+            Long id = change.getNotificationId();
+            if (NotificationChange.DELETED.equals(change.getChangeType())) {
+                changes.getDeleted().add(id);
+            } else if (NotificationChange.INSERTED.equals(first.get(id).getChangeType())) {
+                createdIds.add(id);
+            } else {
+                changes.getRead().add(new NotificationChanges.ReadChange(id, Boolean.TRUE.equals(change.getReadStatus())));
+            }
+        }
+        if (!createdIds.isEmpty()) {
+            changes.setCreated(withPendingReads(notificationRepository.findAllById(createdIds)));
+        }
+        changes.setVersion(next);
+        changes.setHasMore(hasMore);
+        return changes;
+    }
+    
+    // Mark notification as read. The write is buffered and flushed in bulk by PendingReadFlusher
+    // (or right away once too many are pending); reads on this node see it immediately.
+    // Notifications already read are not buffered.
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public boolean markAsRead(Long id) {
-        int updated = notificationRepository.markAsRead(id);
-        return updated > 0;
+        if (pendingReads.contains(id)) {
+            return true;
+        }
+        Optional<Boolean> read = notificationRepository.findReadStatus(id, LocalDateTime.now());
+        if (read.isEmpty()) {
+            return false;
+        }
+        if (!read.get()) {
+            pendingReads.add(id);
+            if (pendingReads.size() >= readFlushMaxPending) {
+                flushPendingReads();
+            }
+        }
+        return true;
+    }
+    
+    // Write the buffered mark-as-read intents with set-based updates, in a transaction of their own
+    // that commits before the lock is released: ids leave the buffer on that commit, so an overlapping
+    // flush never writes or announces them again, and reads never flip back to unread.
+    // Only the rows this flush changed get a READ event.
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public int flushPendingReads() {
+        if (pendingReads.isEmpty()) {
+            return 0;
+        }
+        readFlushLock.lock();
+        try {
+            List<Long> ids = List.copyOf(pendingReads);
+            return batchTransaction.execute(status -> {
+                List<Long> updated = new ArrayList<>();
+                for (int from = 0; from < ids.size(); from += READ_FLUSH_CHUNK_SIZE) {
+                    updated.addAll(notificationRepository.markAsRead(ids.subList(from, Math.min(ids.size(), from + READ_FLUSH_CHUNK_SIZE))));
+                }
+                eventPublisher.publishAll(NotificationEvent.Kind.READ, updated);
+                afterCommit(() -> pendingReads.removeAll(ids));
+                mutated();
+                return updated.size();
+            });
+        } finally {
+            readFlushLock.unlock();
+        }
     }
     
     // Mark all notifications as read
     public int markAllAsRead() {
-        return notificationRepository.markAllAsRead();
+        List<Long> covered = List.copyOf(pendingReads);
+        int updated = notificationRepository.markAllAsRead();
+        if (updated > 0) {
+            eventPublisher.publish(NotificationEvent.Kind.ALL_READ, 0);
+        }
+        afterCommit(() -> pendingReads.removeAll(covered));
+        mutated();
+        return updated;
+    }
+    
+    // Mark every notification about one record as read
+    public int markAsReadByRef(NotificationRef ref) {
+        List<Long> ids = notificationRepository.markAsReadByEntity(ref.getType().getCode(), ref.getId());
+        eventPublisher.publishAll(NotificationEvent.Kind.READ, ids);
+        mutated();
+        return ids.size();
+    }
+    
+    // Delete every notification about one record
+    public int deleteByRef(NotificationRef ref) {
+        List<Long> ids = notificationRepository.deleteByEntity(ref.getType().getCode(), ref.getId());
+        eventPublisher.publishAll(NotificationEvent.Kind.DELETED, ids);
+        afterCommit(() -> ids.forEach(pendingReads::remove));
+        mutated();
+        return ids.size();
     }
     
     // Delete notification
     public boolean deleteNotification(Long id) {
         if (notificationRepository.existsById(id)) {
             notificationRepository.deleteById(id);
+            eventPublisher.publish(NotificationEvent.Kind.DELETED, id);
+            afterCommit(() -> pendingReads.remove(id));
+            mutated();
             return true;
         }
         return false;
     }
     
-    // Delete old notifications (older than 30 days)
+    // Delete all expired notifications now (the reaper does the same in the background).
+    // Called from inside this class, so each batch gets its transaction from batchTransaction.
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public int deleteOldNotifications() {
-        LocalDateTime cutoffDate = LocalDateTime.now().minusDays(30);
-        return notificationRepository.deleteOldNotifications(cutoffDate);
+        int total = 0;
+        int deleted;
+        do {
+            deleted = batchTransaction.execute(status -> deleteExpiredBatch(cleanupBatchSize));
+            total += deleted;
+        } while (deleted == cleanupBatchSize);
+        batchTransaction.executeWithoutResult(status -> pruneChangeLog());
+        return total;
+    }
+    
+    // Delete one batch of expired notifications
+    public int deleteExpiredBatch(int batchSize) {
+        int deleted = notificationRepository.deleteExpiredBatch(LocalDateTime.now(), batchSize);
+        if (deleted > 0) {
+            eventPublisher.publish(NotificationEvent.Kind.PURGED, 0);
+            mutated();
+        }
+        return deleted;
+    }
+    
+    // Drop change-log entries past their retention
+    public int pruneChangeLog() {
+        return changeRepository.deleteOldChanges(LocalDateTime.now().minus(changesRetention));
+    }
+    
+    // Writes from other nodes reach this node as events, after their commit
+    @Override
+    @Transactional(propagation = Propagation.SUPPORTS)
+    public void onNotificationEvent(NotificationEvent event) {
+        mutationGeneration.incrementAndGet();
     }
     
     // Convenience methods for specific notification types
     
     // Notify new client
     public Notification notifyNewClient(String clientName) {
+        return notifyNewClient(clientName, null);
+    }
+    
+    public Notification notifyNewClient(String clientName, String idempotencyKey) {
+        return notifyNewClient(null, clientName, idempotencyKey);
+    }
+    
+    public Notification notifyNewClient(NotificationRef client, String clientName, String idempotencyKey) {
         return createNotification(
             Notification.NotificationType.CLIENT,
             "Novo Cliente",
             clientName + " foi cadastrado no sistema",
-            "person_add"
+            "person_add",
+            null,
+            idempotencyKey,
+            client
         );
     }
     
     // Notify new appointment
     public Notification notifyNewAppointment(String clientName, String barberName, String time) {
+        return notifyNewAppointment(clientName, barberName, time, null);
+    }
+    
+    public Notification notifyNewAppointment(String clientName, String barberName, String time, String idempotencyKey) {
+        return notifyNewAppointment(null, clientName, barberName, time, idempotencyKey);
+    }
+    
+    public Notification notifyNewAppointment(NotificationRef appointment, String clientName, String barberName, String time, String idempotencyKey) {
         return createNotification(
             Notification.NotificationType.APPOINTMENT,
             "Nova Marcação",
             clientName + " agendou uma marcação com " + barberName + " às " + time,
-            "event"
+            "event",
+            null,
+            idempotencyKey,
+            appointment
         );
     }
     
     // Notify appointment cancelled
     public Notification notifyAppointmentCancelled(String clientName, String time) {
-        return createNotification(
+        return notifyAppointmentCancelled(clientName, time, null);
+    }
+    
+    public Notification notifyAppointmentCancelled(String clientName, String time, String idempotencyKey) {
+        return notifyAppointmentCancelled(null, clientName, time, null, idempotencyKey);
+    }
+    
+    // Notify appointment cancelled, also telling the client by SMS
+    public Notification notifyAppointmentCancelled(String clientName, String time, String clientPhone, String idempotencyKey) {
+        return notifyAppointmentCancelled(null, clientName, time, clientPhone, idempotencyKey);
+    }
+    
+    // Notify appointment cancelled; earlier notifications about the appointment (e.g. "Nova Marcação")
+    // are marked as read, and the client is told by SMS when a phone is given
+    public Notification notifyAppointmentCancelled(NotificationRef appointment, String clientName, String time, String clientPhone, String idempotencyKey) {
+        Created created = create(
             Notification.NotificationType.APPOINTMENT,
             "Marcação Cancelada",
             "A marcação de " + clientName + " às " + time + " foi cancelada",
-            "event_busy"
+            "event_busy",
+            null,
+            idempotencyKey,
+            appointment
         );
+        Notification notification = created.notification();
+        if (created.inserted()) {
+            if (appointment != null) {
+                List<Long> ids = notificationRepository.markAsReadByEntityExcept(
+                    appointment.getType().getCode(), appointment.getId(), notification.getId());
+                eventPublisher.publishAll(NotificationEvent.Kind.READ, ids);
+            }
+            sendSms(clientPhone, notification.getTitle(), "Olá " + clientName + ", a sua marcação das " + time + " foi cancelada.", notification.getId());
+        }
+        return notification;
     }
     
     // Notify appointment confirmed
     public Notification notifyAppointmentConfirmed(String clientName, String time) {
-        return createNotification(
+        return notifyAppointmentConfirmed(clientName, time, null);
+    }
+    
+    public Notification notifyAppointmentConfirmed(String clientName, String time, String idempotencyKey) {
+        return notifyAppointmentConfirmed(null, clientName, time, null, idempotencyKey);
+    }
+    
+    // Notify appointment confirmed, also telling the client by SMS
+    public Notification notifyAppointmentConfirmed(String clientName, String time, String clientPhone, String idempotencyKey) {
+        return notifyAppointmentConfirmed(null, clientName, time, clientPhone, idempotencyKey);
+    }
+    
+    // Notify appointment confirmed, linked to the appointment; SMS to the client when a phone is given
+    public Notification notifyAppointmentConfirmed(NotificationRef appointment, String clientName, String time, String clientPhone, String idempotencyKey) {
+        Created created = create(
             Notification.NotificationType.APPOINTMENT,
             "Marcação Confirmada",
             clientName + " confirmou a marcação às " + time,
-            "event_available"
+            "event_available",
+            null,
+            idempotencyKey,
+            appointment
+        );
+        Notification notification = created.notification();
+        if (created.inserted()) {
+            sendSms(clientPhone, notification.getTitle(), "Olá " + clientName + ", a sua marcação das " + time + " está confirmada.", notification.getId());
+        }
+        return notification;
+    }
+    
+    // Remind of an upcoming appointment (ReminderScheduler), linked to it; SMS to the client when a phone is given.
+    // The idempotency key makes a reminder fired again after a restart a no-op.
+    public Notification notifyAppointmentReminder(NotificationRef appointment, String clientName, String time, String clientPhone, String idempotencyKey) {
+        Created created = create(
+            Notification.NotificationType.APPOINTMENT,
+            "Lembrete de Marcação",
+            "Marcação de " + clientName + " em " + time,
+            "event",
+            null,
+            idempotencyKey,
+            appointment
         );
+        Notification notification = created.notification();
+        if (created.inserted()) {
+            sendSms(clientPhone, notification.getTitle(), "Olá " + clientName + ", lembramos a sua marcação de " + time + ".", notification.getId());
+        }
+        return notification;
     }
     
     // Notify new service
     public Notification notifyNewService(String serviceName) {
+        return notifyNewService(serviceName, null);
+    }
+    
+    public Notification notifyNewService(String serviceName, String idempotencyKey) {
+        return notifyNewService(null, serviceName, idempotencyKey);
+    }
+    
+    public Notification notifyNewService(NotificationRef service, String serviceName, String idempotencyKey) {
         return createNotification(
             Notification.NotificationType.SERVICE,
             "Novo Serviço",
             serviceName + " foi adicionado aos serviços",
-            "build"
+            "build",
+            null,
+            idempotencyKey,
+            service
         );
     }
     
     // Notify service updated
     public Notification notifyServiceUpdated(String serviceName) {
+        return notifyServiceUpdated(serviceName, null);
+    }
+    
+    public Notification notifyServiceUpdated(String serviceName, String idempotencyKey) {
+        return notifyServiceUpdated(null, serviceName, idempotencyKey);
+    }
+    
+    public Notification notifyServiceUpdated(NotificationRef service, String serviceName, String idempotencyKey) {
         return createNotification(
             Notification.NotificationType.SERVICE,
             "Serviço Atualizado",
             serviceName + " foi atualizado",
-            "edit"
+            "edit",
+            null,
+            idempotencyKey,
+            service
         );
     }
     
     // Notify system message
     public Notification notifySystemMessage(String title, String message) {
+        return notifySystemMessage(title, message, null);
+    }
+    
+    public Notification notifySystemMessage(String title, String message, String idempotencyKey) {
         return createNotification(
             Notification.NotificationType.SYSTEM,
             title,
             message,
-            "info"
+            "info",
+            null,
+            idempotencyKey
         );
     }
+    
+    // Queue an SMS to the client; sent after the surrounding transaction commits
+    private void sendSms(String phone, String subject, String body, Long notificationId) {
+        if (phone == null || phone.isBlank()) {
+            return;
+        }
+        deliveryService.enqueue(new DeliveryMessage(DeliveryChannelType.SMS, phone, subject, body, notificationId));
+    }
+    
+    // Show buffered mark-as-read intents on notifications loaded from the database. The loaded
+    // instances may be shared by a collapsed read (or managed), so changed ones are copies.
+    private List<Notification> withPendingReads(List<Notification> notifications) {
+        if (pendingReads.isEmpty()) {
+            return notifications;
+        }
+        List<Notification> overlaid = new ArrayList<>(notifications.size());
+        for (Notification notification : notifications) {
+            if (!notification.getReadStatus() && pendingReads.contains(notification.getId())) {
+                Notification read = notification.copy();
+                read.setReadStatus(true);
+                overlaid.add(read);
+            } else {
+                overlaid.add(notification);
+            }
+        }
+        return overlaid;
+    }
+    
+    private <T> T collapsed(String query, Supplier<T> loader) {
+        Supplier<T> readOnly = () -> readOnlyTransaction.execute(status -> loader.get());
+        if (!readCollapsingEnabled) {
+            return readOnly.get();
+        }
+        return readFlights.execute(new ReadKey(query, mutationGeneration.get()), readOnly);
+    }
+    
+    // Reads that start after this commit get a new collapsing key
+    private void mutated() {
+        afterCommit(mutationGeneration::incrementAndGet);
+    }
+    
+    private record ReadKey(String query, long generation) {
+    }
+    
+    // A created notification, or the one an earlier call made with the same idempotency key
+    private record Created(Notification notification, boolean inserted) {
+    }
+    
+    private void afterCommit(Runnable action) {
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
 }
@@ -0,0 +1,45 @@
+package barbershopAPI.barbershopAPI.services;
+
+import barbershopAPI.barbershopAPI.entities.Notification;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+
+// Lifetime of a notification by type, e.g.
+//   app.notifications.ttl.default=30d
+//   app.notifications.ttl.types.SYSTEM=3d
+@Component
+@ConfigurationProperties(prefix = "app.notifications.ttl")
+public class NotificationTtlProperties {
+    
+    private Duration defaultTtl = Duration.ofDays(30);
+    private Map<Notification.NotificationType, Duration> types = new EnumMap<>(Notification.NotificationType.class);
+    
+    public NotificationTtlProperties() {
+        types.put(Notification.NotificationType.SYSTEM, Duration.ofDays(7));
+    }
+    
+    public Duration ttlFor(Notification.NotificationType type) {
+        return types.getOrDefault(type, defaultTtl);
+    }
+    
+    // Getters and Setters
+    public Duration getDefault() {
+        return defaultTtl;
+    }
+    
+    public void setDefault(Duration defaultTtl) {
+        this.defaultTtl = defaultTtl;
+    }
+    
+    public Map<Notification.NotificationType, Duration> getTypes() {
+        return types;
+    }
+    
+    public void setTypes(Map<Notification.NotificationType, Duration> types) {
+        this.types = types;
+    }
+}
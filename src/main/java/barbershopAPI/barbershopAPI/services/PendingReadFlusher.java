@@ -0,0 +1,35 @@
+package barbershopAPI.barbershopAPI.services;
+
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+// Writes the mark-as-read intents buffered by NotificationService as one bulk update
+// per interval, and once more on shutdown so no click is lost.
+@Component
+@Lazy(false)
+public class PendingReadFlusher {
+    
+    private static final Logger log = LoggerFactory.getLogger(PendingReadFlusher.class);
+    
+    @Autowired
+    private NotificationService notificationService;
+    
+    @Scheduled(fixedDelayString = "${app.notifications.read-flush.interval-ms:1000}")
+    public void flush() {
+        notificationService.flushPendingReads();
+    }
+    
+    // Runs before NotificationService and the DataSource are destroyed, as this bean depends on them
+    @PreDestroy
+    void flushOnShutdown() {
+        int updated = notificationService.flushPendingReads();
+        if (updated > 0) {
+            log.info("Flushed {} pending mark-as-read writes on shutdown", updated);
+        }
+    }
+}
@@ -0,0 +1,12 @@
+package barbershopAPI.barbershopAPI.services.delivery;
+
+// Adapter to an outbound provider (SMS gateway, mail server, push service).
+// Implementations are picked up as beans; the first one (by @Order) that supports
+// a channel type handles its messages.
+public interface DeliveryChannel {
+    
+    boolean supports(DeliveryChannelType type);
+    
+    // Throw DeliveryException to fail the attempt; it is retried unless marked permanent
+    void send(DeliveryMessage message) throws DeliveryException;
+}
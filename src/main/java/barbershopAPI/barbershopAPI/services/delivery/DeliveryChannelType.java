@@ -0,0 +1,5 @@
+package barbershopAPI.barbershopAPI.services.delivery;
+
+public enum DeliveryChannelType {
+    SMS, EMAIL, PUSH
+}
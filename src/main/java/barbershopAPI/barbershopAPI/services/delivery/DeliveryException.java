@@ -0,0 +1,25 @@
+package barbershopAPI.barbershopAPI.services.delivery;
+
+public class DeliveryException extends Exception {
+    
+    private final boolean permanent;
+    
+    public DeliveryException(String message) {
+        this(message, false);
+    }
+    
+    public DeliveryException(String message, boolean permanent) {
+        super(message);
+        this.permanent = permanent;
+    }
+    
+    public DeliveryException(String message, Throwable cause) {
+        super(message, cause);
+        this.permanent = false;
+    }
+    
+    // Permanent failures (invalid recipient, rejected content) go straight to the dead-letter table
+    public boolean isPermanent() {
+        return permanent;
+    }
+}
@@ -0,0 +1,61 @@
+package barbershopAPI.barbershopAPI.services.delivery;
+
+// Outbound message plus its delivery bookkeeping
+public class DeliveryMessage {
+    
+    private final DeliveryChannelType channel;
+    private final String recipient;
+    private final String subject;
+    private final String body;
+    private final Long notificationId;
+    private final long enqueuedAtNanos;
+    private int attempts;
+    private String lastError;
+    
+    public DeliveryMessage(DeliveryChannelType channel, String recipient, String subject, String body, Long notificationId) {
+        this.channel = channel;
+        this.recipient = recipient;
+        this.subject = subject;
+        this.body = body;
+        this.notificationId = notificationId;
+        this.enqueuedAtNanos = System.nanoTime();
+    }
+    
+    // Getters
+    public DeliveryChannelType getChannel() {
+        return channel;
+    }
+    
+    public String getRecipient() {
+        return recipient;
+    }
+    
+    public String getSubject() {
+        return subject;
+    }
+    
+    public String getBody() {
+        return body;
+    }
+    
+    public Long getNotificationId() {
+        return notificationId;
+    }
+    
+    public long getEnqueuedAtNanos() {
+        return enqueuedAtNanos;
+    }
+    
+    public int getAttempts() {
+        return attempts;
+    }
+    
+    public String getLastError() {
+        return lastError;
+    }
+    
+    void recordFailure(String error) {
+        this.attempts++;
+        this.lastError = error;
+    }
+}
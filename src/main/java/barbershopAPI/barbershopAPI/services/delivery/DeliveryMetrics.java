@@ -0,0 +1,102 @@
+package barbershopAPI.barbershopAPI.services.delivery;
+
+import org.springframework.stereotype.Component;
+
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+// Per-channel delivery counters and an enqueue-to-delivered latency histogram
+@Component
+public class DeliveryMetrics {
+    
+    // Upper bounds of the latency buckets in milliseconds; the last bucket is open-ended
+    private static final long[] BUCKETS_MS = {50, 100, 250, 500, 1_000, 2_500, 5_000, 10_000, 30_000, 60_000};
+    
+    private final Map<DeliveryChannelType, ChannelStats> stats = new EnumMap<>(DeliveryChannelType.class);
+    
+    public DeliveryMetrics() {
+        for (DeliveryChannelType type : DeliveryChannelType.values()) {
+            stats.put(type, new ChannelStats());
+        }
+    }
+    
+    void enqueued(DeliveryChannelType type) {
+        stats.get(type).enqueued.increment();
+    }
+    
+    void delivered(DeliveryChannelType type, long latencyNanos) {
+        ChannelStats channel = stats.get(type);
+        channel.delivered.increment();
+        long latencyMs = latencyNanos / 1_000_000;
+        int bucket = 0;
+        while (bucket < BUCKETS_MS.length && latencyMs > BUCKETS_MS[bucket]) {
+            bucket++;
+        }
+        channel.latency.incrementAndGet(bucket);
+        channel.latencyTotalMs.add(latencyMs);
+    }
+    
+    void retried(DeliveryChannelType type) {
+        stats.get(type).retried.increment();
+    }
+    
+    void deadLettered(DeliveryChannelType type) {
+        stats.get(type).deadLettered.increment();
+    }
+    
+    void rejected(DeliveryChannelType type) {
+        stats.get(type).rejected.increment();
+    }
+    
+    public Map<String, Object> snapshot() {
+        Map<String, Object> result = new LinkedHashMap<>();
+        stats.forEach((type, channel) -> {
+            Map<String, Object> values = new LinkedHashMap<>();
+            long delivered = channel.delivered.sum();
+            values.put("enqueued", channel.enqueued.sum());
+            values.put("delivered", delivered);
+            values.put("retried", channel.retried.sum());
+            values.put("deadLettered", channel.deadLettered.sum());
+            values.put("rejected", channel.rejected.sum());
+            values.put("latencyAvgMs", delivered == 0 ? 0 : channel.latencyTotalMs.sum() / delivered);
+            values.put("latencyP50Ms", percentile(channel, 0.50));
+            values.put("latencyP95Ms", percentile(channel, 0.95));
+            values.put("latencyP99Ms", percentile(channel, 0.99));
+            result.put(type.name(), values);
+        });
+        return result;
+    }
+    
+    // Upper bound of the bucket holding the percentile, -1 when it falls in the open-ended bucket
+    private static long percentile(ChannelStats channel, double percentile) {
+        long total = 0;
+        for (int i = 0; i < channel.latency.length(); i++) {
+            total += channel.latency.get(i);
+        }
+        if (total == 0) {
+            return 0;
+        }
+        long rank = (long) Math.ceil(total * percentile);
+        long seen = 0;
+        for (int i = 0; i < BUCKETS_MS.length; i++) {
+            seen += channel.latency.get(i);
+            if (seen >= rank) {
+                return BUCKETS_MS[i];
+            }
+        }
+        return -1;
+    }
+    
+    private static final class ChannelStats {
+        final LongAdder enqueued = new LongAdder();
+        final LongAdder delivered = new LongAdder();
+        final LongAdder retried = new LongAdder();
+        final LongAdder deadLettered = new LongAdder();
+        final LongAdder rejected = new LongAdder();
+        final LongAdder latencyTotalMs = new LongAdder();
+        final AtomicLongArray latency = new AtomicLongArray(BUCKETS_MS.length + 1);
+    }
+}
@@ -0,0 +1,274 @@
+package barbershopAPI.barbershopAPI.services.delivery;
+
+import barbershopAPI.barbershopAPI.entities.DeliveryDeadLetter;
+import barbershopAPI.barbershopAPI.repositories.DeliveryDeadLetterRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+// Sends notifications to clients over SMS / e-mail / push without blocking the caller.
+// Each channel has its own bounded queue and concurrency limit: a message waits in its channel's
+// queue until one of the channel's slots is free and is then handed to the worker pool, so a slow
+// channel never fills the queue of the others. Failures are retried with exponential backoff and
+// full jitter, and messages that run out of attempts end up in the delivery_dead_letters table.
+@Service
+public class DeliveryService {
+    
+    private static final Logger log = LoggerFactory.getLogger(DeliveryService.class);
+    
+    @Autowired(required = false)
+    private List<DeliveryChannel> channels = List.of();
+    
+    @Autowired
+    private DeliveryDeadLetterRepository deadLetterRepository;
+    
+    @Autowired
+    private DeliveryMetrics metrics;
+    
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+    
+    @Value("${app.delivery.workers:4}")
+    private int workers;
+    
+    // Messages waiting per channel; retries of accepted messages are never turned away
+    @Value("${app.delivery.queue-capacity:1000}")
+    private int queueCapacity;
+    
+    @Value("${app.delivery.per-channel-concurrency:2}")
+    private int perChannelConcurrency;
+    
+    @Value("${app.delivery.max-attempts:5}")
+    private int maxAttempts;
+    
+    @Value("${app.delivery.backoff-base-ms:500}")
+    private long backoffBaseMs;
+    
+    @Value("${app.delivery.backoff-max-ms:60000}")
+    private long backoffMaxMs;
+    
+    private final Map<DeliveryChannelType, ChannelQueue> queues = new EnumMap<>(DeliveryChannelType.class);
+    private ThreadPoolExecutor workerPool;
+    private ScheduledExecutorService retryScheduler;
+    
+    // Dead letters are often written from afterCommit, where the caller's transaction is already
+    // committed and a joining save would never be flushed
+    private TransactionTemplate deadLetterTransaction;
+    
+    @PostConstruct
+    void start() {
+        for (DeliveryChannelType type : DeliveryChannelType.values()) {
+            queues.put(type, new ChannelQueue());
+        }
+        // The pool's own queue holds at most perChannelConcurrency messages per channel
+        workerPool = new ThreadPoolExecutor(workers, workers, 0, TimeUnit.MILLISECONDS,
+            new LinkedBlockingQueue<>(),
+            runnable -> {
+                Thread thread = new Thread(runnable, "delivery-worker");
+                thread.setDaemon(true);
+                return thread;
+            });
+        retryScheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "delivery-retry");
+            thread.setDaemon(true);
+            return thread;
+        });
+        deadLetterTransaction = new TransactionTemplate(transactionManager);
+        deadLetterTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+    
+    @PreDestroy
+    void stop() throws InterruptedException {
+        retryScheduler.shutdownNow();
+        workerPool.shutdown();
+        if (!workerPool.awaitTermination(10, TimeUnit.SECONDS)) {
+            log.warn("Delivery workers did not finish in time, {} messages not attempted", workerPool.getQueue().size());
+            workerPool.shutdownNow();
+        }
+        int waiting = waiting();
+        if (waiting > 0) {
+            log.warn("Delivery stopped with {} queued messages dropped", waiting);
+        }
+    }
+    
+    // Queue a message; inside a transaction it is only queued (and counted) once the transaction commits
+    public void enqueue(DeliveryMessage message) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    accept(message);
+                }
+            });
+        } else {
+            accept(message);
+        }
+    }
+    
+    public Map<String, Object> getMetrics() {
+        Map<String, Object> snapshot = metrics.snapshot();
+        snapshot.put("queued", waiting());
+        snapshot.put("active", workerPool.getActiveCount());
+        return snapshot;
+    }
+    
+    public List<DeliveryDeadLetter> getRecentDeadLetters() {
+        return deadLetterRepository.findTop100ByOrderByCreatedAtDesc();
+    }
+    
+    private void accept(DeliveryMessage message) {
+        metrics.enqueued(message.getChannel());
+        ChannelQueue queue = queues.get(message.getChannel());
+        boolean full;
+        synchronized (queue) {
+            full = queue.waiting.size() >= queueCapacity;
+            if (!full) {
+                queue.waiting.addLast(message);
+            }
+        }
+        if (full) {
+            // Never block the booking request: park the message instead
+            metrics.rejected(message.getChannel());
+            message.recordFailure("Delivery queue full");
+            deadLetter(message);
+            return;
+        }
+        drain(message.getChannel());
+    }
+    
+    private void retry(DeliveryMessage message) {
+        ChannelQueue queue = queues.get(message.getChannel());
+        synchronized (queue) {
+            queue.waiting.addLast(message);
+        }
+        drain(message.getChannel());
+    }
+    
+    // Hands waiting messages of the channel to the workers while it has free slots
+    private void drain(DeliveryChannelType type) {
+        ChannelQueue queue = queues.get(type);
+        while (true) {
+            DeliveryMessage next;
+            synchronized (queue) {
+                if (queue.inFlight >= perChannelConcurrency || queue.waiting.isEmpty()) {
+                    return;
+                }
+                next = queue.waiting.pollFirst();
+                queue.inFlight++;
+            }
+            try {
+                workerPool.execute(() -> attempt(next));
+            } catch (RejectedExecutionException e) {
+                synchronized (queue) {
+                    queue.inFlight--;
+                }
+                next.recordFailure("Delivery stopped before sending");
+                deadLetter(next);
+            }
+        }
+    }
+    
+    private void attempt(DeliveryMessage message) {
+        try {
+            DeliveryChannel channel = channelFor(message.getChannel());
+            channel.send(message);
+            metrics.delivered(message.getChannel(), System.nanoTime() - message.getEnqueuedAtNanos());
+        } catch (DeliveryException e) {
+            message.recordFailure(e.getMessage());
+            if (e.isPermanent() || message.getAttempts() >= maxAttempts) {
+                deadLetter(message);
+            } else {
+                metrics.retried(message.getChannel());
+                schedule(message, backoffDelayMs(message.getAttempts()));
+            }
+        } catch (RuntimeException e) {
+            message.recordFailure(e.toString());
+            deadLetter(message);
+        } finally {
+            ChannelQueue queue = queues.get(message.getChannel());
+            synchronized (queue) {
+                queue.inFlight--;
+            }
+            drain(message.getChannel());
+        }
+    }
+    
+    private int waiting() {
+        int waiting = 0;
+        for (ChannelQueue queue : queues.values()) {
+            synchronized (queue) {
+                waiting += queue.waiting.size();
+            }
+        }
+        return waiting;
+    }
+    
+    // Full jitter: uniform in [0, min(max, base * 2^(attempt-1))]
+    private long backoffDelayMs(int attempt) {
+        long ceiling = Math.min(backoffMaxMs, backoffBaseMs << Math.min(attempt - 1, 30));
+        return ThreadLocalRandom.current().nextLong(ceiling + 1);
+    }
+    
+    private void schedule(DeliveryMessage message, long delayMs) {
+        try {
+            retryScheduler.schedule(() -> retry(message), delayMs, TimeUnit.MILLISECONDS);
+        } catch (RejectedExecutionException e) {
+            message.recordFailure("Delivery stopped before retry");
+            deadLetter(message);
+        }
+    }
+    
+    private DeliveryChannel channelFor(DeliveryChannelType type) throws DeliveryException {
+        for (DeliveryChannel channel : channels) {
+            if (channel.supports(type)) {
+                return channel;
+            }
+        }
+        throw new DeliveryException("No delivery channel configured for " + type, true);
+    }
+    
+    private void deadLetter(DeliveryMessage message) {
+        metrics.deadLettered(message.getChannel());
+        try {
+            deadLetterTransaction.executeWithoutResult(status -> deadLetterRepository.save(new DeliveryDeadLetter(
+                message.getNotificationId(),
+                message.getChannel().name(),
+                message.getRecipient(),
+                message.getSubject(),
+                message.getBody(),
+                message.getAttempts(),
+                message.getLastError()
+            )));
+        } catch (RuntimeException e) {
+            log.error("Could not store dead letter for {} to {}: {}", message.getChannel(), message.getRecipient(), message.getLastError(), e);
+        }
+    }
+    
+    // Messages of one channel waiting for a slot, and how many of its messages are being sent
+    private static final class ChannelQueue {
+        private final Deque<DeliveryMessage> waiting = new ArrayDeque<>();
+        private int inFlight;
+    }
+}
@@ -0,0 +1,45 @@
+package barbershopAPI.barbershopAPI.services.delivery;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+
+// Local stand-in for every channel: appends each message as one line to a file.
+// Opt-in (app.delivery.file-sink.enabled=true) for development and tests, so a production node
+// without a provider adapter dead-letters its messages instead of silently writing them to disk.
+@Component
+@Order(Ordered.LOWEST_PRECEDENCE)
+@ConditionalOnProperty(name = "app.delivery.file-sink.enabled", havingValue = "true")
+public class FileSinkDeliveryChannel implements DeliveryChannel {
+    
+    private final Path file;
+    
+    public FileSinkDeliveryChannel(@Value("${app.delivery.file-sink.path:deliveries.log}") String path) {
+        this.file = Path.of(path);
+    }
+    
+    @Override
+    public boolean supports(DeliveryChannelType type) {
+        return true;
+    }
+    
+    @Override
+    public synchronized void send(DeliveryMessage message) throws DeliveryException {
+        String line = LocalDateTime.now() + "\t" + message.getChannel() + "\t" + message.getRecipient() + "\t"
+            + message.getSubject() + "\t" + message.getBody().replace('\n', ' ') + System.lineSeparator();
+        try {
+            Files.writeString(file, line, StandardCharsets.UTF_8, StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+        } catch (IOException e) {
+            throw new DeliveryException("Could not write to " + file, e);
+        }
+    }
+}
@@ -0,0 +1,65 @@
+package barbershopAPI.barbershopAPI.services.events;
+
+// Change event for a scheduling or client record, so every node can refresh its in-memory indexes.
+// Wire format over NOTIFY is "<code>:<id>", e.g. "C:42" or "A:3f2b9c1e-...";
+// ids are text because appointment ids are not numeric.
+public class EntityChange {
+    
+    public enum Kind {
+        APPOINTMENT('A'),
+        CLIENT('C'),
+        SERVICE('S'),
+        WORKING_HOURS('W'),
+        TIME_OFF('T'),
+        // Emitted locally after a listener outage: records may have changed without an event
+        RESYNC('R');
+        
+        private final char code;
+        
+        Kind(char code) {
+            this.code = code;
+        }
+        
+        static Kind fromCode(char code) {
+            for (Kind kind : values()) {
+                if (kind.code == code) {
+                    return kind;
+                }
+            }
+            throw new IllegalArgumentException("Unknown entity change code: " + code);
+        }
+    }
+    
+    private final Kind kind;
+    private final String id;
+    
+    public EntityChange(Kind kind, String id) {
+        this.kind = kind;
+        this.id = id;
+    }
+    
+    public static EntityChange parse(String payload) {
+        int separator = payload.indexOf(':');
+        if (separator != 1) {
+            throw new IllegalArgumentException("Malformed entity change: " + payload);
+        }
+        return new EntityChange(Kind.fromCode(payload.charAt(0)), payload.substring(2));
+    }
+    
+    public String toPayload() {
+        return kind.code + ":" + id;
+    }
+    
+    public Kind getKind() {
+        return kind;
+    }
+    
+    public String getId() {
+        return id;
+    }
+    
+    // Id of a numeric record (everything but appointments)
+    public long getLongId() {
+        return Long.parseLong(id);
+    }
+}
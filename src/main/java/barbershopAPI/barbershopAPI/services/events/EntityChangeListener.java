@@ -0,0 +1,8 @@
+package barbershopAPI.barbershopAPI.services.events;
+
+// Implemented by per-node components that keep records of other tables in memory
+// (availability, calendar, client search) and must follow changes made on any node.
+public interface EntityChangeListener {
+    
+    void onEntityChange(EntityChange change);
+}
@@ -0,0 +1,43 @@
+package barbershopAPI.barbershopAPI.services.events;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.stream.Collectors;
+
+// Emits entity change events with pg_notify on the caller's transaction, like
+// NotificationEventPublisher: delivered only once the write commits, nothing on H2.
+// Call it from every write to appointments, clients, services, working_hours and time_off.
+@Component
+public class EntityChangePublisher {
+    
+    public static final String CHANNEL = "entity_changes";
+    
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    
+    @Autowired
+    private NotificationEventPublisher notificationEventPublisher;
+    
+    public void publish(EntityChange.Kind kind, Object id) {
+        if (!notificationEventPublisher.isEnabled()) {
+            return;
+        }
+        EntityChange change = new EntityChange(kind, String.valueOf(id));
+        jdbcTemplate.queryForObject("SELECT pg_notify(?, ?)", String.class, CHANNEL, change.toPayload());
+    }
+    
+    // One event per id, sent with a single statement
+    public void publishAll(EntityChange.Kind kind, Collection<?> ids) {
+        if (!notificationEventPublisher.isEnabled() || ids.isEmpty()) {
+            return;
+        }
+        String payloads = ids.stream()
+            .map(id -> new EntityChange(kind, String.valueOf(id)).toPayload())
+            .collect(Collectors.joining(","));
+        jdbcTemplate.queryForList("SELECT pg_notify(?, payload) FROM unnest(string_to_array(?, ',')) AS payload",
+            String.class, CHANNEL, payloads);
+    }
+}
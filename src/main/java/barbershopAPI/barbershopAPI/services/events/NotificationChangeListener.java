@@ -0,0 +1,207 @@
+package barbershopAPI.barbershopAPI.services.events;
+
+import barbershopAPI.barbershopAPI.entities.NotificationChange;
+import barbershopAPI.barbershopAPI.repositories.NotificationChangeRepository;
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+
+// Holds one dedicated LISTEN connection per node and fans the received events out to every
+// NotificationEventListener and EntityChangeListener bean. Tracks how far it has seen the
+// notification change log as a transaction horizon (see NotificationService.getChangesSince);
+// after reconnecting it replays the log from there and tells entity listeners to resync.
+@Component
+public class NotificationChangeListener implements SmartLifecycle {
+    
+    private static final Logger log = LoggerFactory.getLogger(NotificationChangeListener.class);
+    
+    private static final int POLL_TIMEOUT_MS = 10_000;
+    private static final long MAX_BACKOFF_MS = 30_000;
+    private static final int CATCH_UP_PAGE_SIZE = 1000;
+    
+    @Autowired
+    private DataSourceProperties dataSourceProperties;
+    
+    @Autowired
+    private NotificationChangeRepository changeRepository;
+    
+    @Autowired
+    private NotificationEventPublisher eventPublisher;
+    
+    @Autowired
+    private ObjectProvider<NotificationEventListener> listeners;
+    
+    @Autowired
+    private ObjectProvider<EntityChangeListener> entityListeners;
+    
+    @Value("${app.notifications.listen.enabled:true}")
+    private boolean enabled;
+    
+    private volatile boolean running = false;
+    // Every change log transaction below this has been dispatched
+    private volatile long seenHorizon = 0;
+    private Thread thread;
+    
+    @Override
+    public void start() {
+        if (!enabled || !eventPublisher.isEnabled()) {
+            log.info("Notification LISTEN disabled (requires PostgreSQL)");
+            return;
+        }
+        seenHorizon = changeRepository.findSettledHorizon();
+        running = true;
+        thread = new Thread(this::run, "notification-listener");
+        thread.setDaemon(true);
+        thread.start();
+    }
+    
+    @Override
+    public void stop() {
+        running = false;
+        if (thread != null) {
+            thread.interrupt();
+        }
+    }
+    
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+    
+    private void run() {
+        long backoffMs = 500;
+        boolean recovering = false;
+        while (running) {
+            try (Connection connection = DriverManager.getConnection(
+                    dataSourceProperties.determineUrl(),
+                    dataSourceProperties.determineUsername(),
+                    dataSourceProperties.determinePassword())) {
+                try (Statement statement = connection.createStatement()) {
+                    statement.execute("LISTEN " + NotificationEventPublisher.CHANNEL);
+                    statement.execute("LISTEN " + EntityChangePublisher.CHANNEL);
+                }
+                // Listening again before catching up, so nothing falls in between
+                catchUp(recovering);
+                recovering = false;
+                backoffMs = 500;
+                PGConnection pgConnection = connection.unwrap(PGConnection.class);
+                while (running) {
+                    // Transactions below the horizon have committed, so their events are already
+                    // buffered on this connection and drained by the next getNotifications
+                    long horizon = settledHorizon(connection);
+                    PGNotification[] notifications = pgConnection.getNotifications(POLL_TIMEOUT_MS);
+                    if (notifications != null) {
+                        for (PGNotification notification : notifications) {
+                            handle(notification.getName(), notification.getParameter());
+                        }
+                    }
+                    seenHorizon = Math.max(seenHorizon, horizon);
+                }
+            } catch (SQLException | RuntimeException e) {
+                if (!running) {
+                    break;
+                }
+                recovering = true;
+                log.warn("Notification listener connection lost, retrying in {} ms: {}", backoffMs, e.getMessage());
+                try {
+                    Thread.sleep(backoffMs);
+                } catch (InterruptedException interrupted) {
+                    Thread.currentThread().interrupt();
+                    break;
+                }
+                backoffMs = Math.min(backoffMs * 2, MAX_BACKOFF_MS);
+            }
+        }
+    }
+    
+    private void handle(String channel, String payload) {
+        try {
+            if (EntityChangePublisher.CHANNEL.equals(channel)) {
+                dispatch(EntityChange.parse(payload));
+            } else {
+                dispatch(NotificationEvent.parse(payload));
+            }
+        } catch (IllegalArgumentException e) {
+            log.warn("Ignoring {} event: {}", channel, e.getMessage());
+        }
+    }
+    
+    // Replays the change log from the last horizon seen. Reads and deletes are in the log too,
+    // so notification listeners only need a RESYNC once retention pruned past the horizon.
+    // Other tables have no log: after an outage entity listeners reload.
+    private void catchUp(boolean recovering) {
+        long horizon = changeRepository.findSettledHorizon();
+        long from = seenHorizon;
+        int replayed = 0;
+        if (from < changeRepository.findPrunedBefore()) {
+            dispatch(new NotificationEvent(NotificationEvent.Kind.RESYNC, 0));
+        } else {
+            List<NotificationChange> changes;
+            int page = 0;
+            do {
+                changes = changeRepository.findByTxidGreaterThanEqualAndTxidLessThanOrderByTxidAscVersionAsc(
+                    from, horizon, PageRequest.of(page++, CATCH_UP_PAGE_SIZE));
+                for (NotificationChange change : changes) {
+                    dispatch(new NotificationEvent(replayedKind(change), change.getNotificationId()));
+                }
+                replayed += changes.size();
+            } while (changes.size() == CATCH_UP_PAGE_SIZE);
+        }
+        seenHorizon = Math.max(seenHorizon, horizon);
+        if (recovering) {
+            dispatch(new EntityChange(EntityChange.Kind.RESYNC, ""));
+            log.info("Notification listener caught up {} missed changes", replayed);
+        }
+    }
+    
+    private static NotificationEvent.Kind replayedKind(NotificationChange change) {
+        return switch (change.getChangeType()) {
+            case NotificationChange.INSERTED -> NotificationEvent.Kind.CREATED;
+            case NotificationChange.DELETED -> NotificationEvent.Kind.DELETED;
+            default -> NotificationEvent.Kind.READ;
+        };
+    }
+    
+    private static long settledHorizon(Connection connection) throws SQLException {
+        try (Statement statement = connection.createStatement();
+             ResultSet rs = statement.executeQuery("SELECT pg_snapshot_xmin(pg_current_snapshot())::text::bigint")) {
+            rs.next();
+            return rs.getLong(1);
+        }
+    }
+    
+    private void dispatch(NotificationEvent event) {
+        listeners.orderedStream().forEach(listener -> {
+            try {
+                listener.onNotificationEvent(event);
+            } catch (RuntimeException e) {
+                log.warn("Notification event listener failed", e);
+            }
+        });
+    }
+    
+    private void dispatch(EntityChange change) {
+        entityListeners.orderedStream().forEach(listener -> {
+            try {
+                listener.onEntityChange(change);
+            } catch (RuntimeException e) {
+                log.warn("Entity change listener failed", e);
+            }
+        });
+    }
+}
@@ -0,0 +1,59 @@
+package barbershopAPI.barbershopAPI.services.events;
+
+// Compact change event for a notification mutation.
+// Wire format over NOTIFY is "<code>:<id>", e.g. "C:42" or "A:0".
+public class NotificationEvent {
+    
+    public enum Kind {
+        CREATED('C'),
+        READ('R'),
+        ALL_READ('A'),
+        DELETED('D'),
+        PURGED('P'),
+        // Emitted locally after a listener outage: state may have changed without an event
+        RESYNC('S');
+        
+        private final char code;
+        
+        Kind(char code) {
+            this.code = code;
+        }
+        
+        static Kind fromCode(char code) {
+            for (Kind kind : values()) {
+                if (kind.code == code) {
+                    return kind;
+                }
+            }
+            throw new IllegalArgumentException("Unknown notification event code: " + code);
+        }
+    }
+    
+    private final Kind kind;
+    private final long notificationId;
+    
+    public NotificationEvent(Kind kind, long notificationId) {
+        this.kind = kind;
+        this.notificationId = notificationId;
+    }
+    
+    public static NotificationEvent parse(String payload) {
+        int separator = payload.indexOf(':');
+        if (separator != 1) {
+            throw new IllegalArgumentException("Malformed notification event: " + payload);
+        }
+        return new NotificationEvent(Kind.fromCode(payload.charAt(0)), Long.parseLong(payload.substring(2)));
+    }
+    
+    public String toPayload() {
+        return kind.code + ":" + notificationId;
+    }
+    
+    public Kind getKind() {
+        return kind;
+    }
+    
+    public long getNotificationId() {
+        return notificationId;
+    }
+}
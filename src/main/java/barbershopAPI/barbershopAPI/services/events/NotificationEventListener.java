@@ -0,0 +1,8 @@
+package barbershopAPI.barbershopAPI.services.events;
+
+// Implemented by per-node components that need to react to notification changes
+// made on any node (local caches, connected clients).
+public interface NotificationEventListener {
+    
+    void onNotificationEvent(NotificationEvent event);
+}
@@ -0,0 +1,57 @@
+package barbershopAPI.barbershopAPI.services.events;
+
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.stream.Collectors;
+
+// Emits change events with pg_notify on the caller's transaction,
+// so Postgres only delivers them once the mutation commits.
+// Does nothing on other databases (e.g. H2 in development).
+@Component
+public class NotificationEventPublisher {
+    
+    public static final String CHANNEL = "notification_events";
+    
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    
+    @Autowired
+    private DataSourceProperties dataSourceProperties;
+    
+    private boolean enabled;
+    
+    @PostConstruct
+    void init() {
+        String url = dataSourceProperties.determineUrl();
+        enabled = url != null && url.startsWith("jdbc:postgresql:");
+    }
+    
+    public boolean isEnabled() {
+        return enabled;
+    }
+    
+    public void publish(NotificationEvent.Kind kind, long notificationId) {
+        if (!enabled) {
+            return;
+        }
+        NotificationEvent event = new NotificationEvent(kind, notificationId);
+        jdbcTemplate.queryForObject("SELECT pg_notify(?, ?)", String.class, CHANNEL, event.toPayload());
+    }
+    
+    // One event per id, sent with a single statement
+    public void publishAll(NotificationEvent.Kind kind, Collection<Long> notificationIds) {
+        if (!enabled || notificationIds.isEmpty()) {
+            return;
+        }
+        String payloads = notificationIds.stream()
+            .map(id -> new NotificationEvent(kind, id).toPayload())
+            .collect(Collectors.joining(","));
+        jdbcTemplate.queryForList("SELECT pg_notify(?, payload) FROM unnest(string_to_array(?, ',')) AS payload",
+            String.class, CHANNEL, payloads);
+    }
+}
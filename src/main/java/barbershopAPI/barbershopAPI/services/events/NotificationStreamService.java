@@ -0,0 +1,39 @@
+package barbershopAPI.barbershopAPI.services.events;
+
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+// Pushes notification change events to the browser tabs connected to this node.
+@Service
+public class NotificationStreamService implements NotificationEventListener {
+    
+    private static final long EMITTER_TIMEOUT_MS = 30 * 60 * 1000L;
+    
+    private final List<SseEmitter> emitters = new CopyOnWriteArrayList<>();
+    
+    public SseEmitter subscribe() {
+        SseEmitter emitter = new SseEmitter(EMITTER_TIMEOUT_MS);
+        emitter.onCompletion(() -> emitters.remove(emitter));
+        emitter.onTimeout(() -> emitters.remove(emitter));
+        emitter.onError(e -> emitters.remove(emitter));
+        emitters.add(emitter);
+        return emitter;
+    }
+    
+    @Override
+    public void onNotificationEvent(NotificationEvent event) {
+        Map<String, Object> data = Map.of("id", event.getNotificationId());
+        for (SseEmitter emitter : emitters) {
+            try {
+                emitter.send(SseEmitter.event().name(event.getKind().name()).data(data));
+            } catch (IOException | IllegalStateException e) {
+                emitters.remove(emitter);
+            }
+        }
+    }
+}
@@ -0,0 +1,181 @@
+package barbershopAPI.barbershopAPI.services.imports;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+// Reads an import file one row at a time, so memory does not grow with the file.
+// Field names are normalized (lower case, no '_', '-' or spaces): "barber_id" and "barberId" are the same field.
+abstract class ImportRowReader {
+    
+    private final BufferedReader reader;
+    private long lineNumber;
+    
+    ImportRowReader(InputStream input) {
+        this.reader = new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8));
+    }
+    
+    static ImportRowReader csv(InputStream input) {
+        return new Csv(input);
+    }
+    
+    static ImportRowReader ndjson(InputStream input, ObjectMapper objectMapper) {
+        return new Ndjson(input, objectMapper);
+    }
+    
+    // Next row, or null at the end of the input; a malformed row throws and is skipped
+    abstract Map<String, String> next() throws IOException, MalformedRowException;
+    
+    // Line of the row last returned (1-based)
+    long lineNumber() {
+        return lineNumber;
+    }
+    
+    // Next non-blank line, or null at the end of the input
+    String nextLine() throws IOException {
+        String line;
+        do {
+            line = reader.readLine();
+            if (line == null) {
+                return null;
+            }
+            lineNumber++;
+            if (lineNumber == 1 && line.startsWith("\uFEFF")) {
+                line = line.substring(1);
+            }
+        } while (line.isBlank());
+        return line;
+    }
+    
+    static String normalizeField(String name) {
+        return name.trim().toLowerCase(Locale.ROOT).replaceAll("[_\\-\\s]", "");
+    }
+    
+    static class MalformedRowException extends Exception {
+        MalformedRowException(String message) {
+            super(message);
+        }
+    }
+    
+    // Comma-separated with a header line; fields may be quoted ("a, b" and "say ""hi""").
+    // Quoted fields cannot span lines.
+    private static final class Csv extends ImportRowReader {
+        
+        private List<String> header;
+        
+        Csv(InputStream input) {
+            super(input);
+        }
+        
+        @Override
+        Map<String, String> next() throws IOException, MalformedRowException {
+            if (header == null) {
+                String headerLine = nextLine();
+                if (headerLine == null) {
+                    return null;
+                }
+                header = new ArrayList<>();
+                for (String name : split(headerLine)) {
+                    header.add(normalizeField(name));
+                }
+            }
+            String line = nextLine();
+            if (line == null) {
+                return null;
+            }
+            List<String> values = split(line);
+            if (values.size() != header.size()) {
+                throw new MalformedRowException("Expected " + header.size() + " fields, found " + values.size());
+            }
+            Map<String, String> row = new HashMap<>();
+            for (int i = 0; i < values.size(); i++) {
+                String value = values.get(i).trim();
+                row.put(header.get(i), value.isEmpty() ? null : value);
+            }
+            return row;
+        }
+        
+        private static List<String> split(String line) throws MalformedRowException {
+            List<String> fields = new ArrayList<>();
+            StringBuilder field = new StringBuilder();
+            boolean quoted = false;
+            for (int i = 0; i < line.length(); i++) {
+                char c = line.charAt(i);
+                if (quoted) {
+                    if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                        field.append('"');
+                        i++;
+                    } else if (c == '"') {
+                        quoted = false;
+                    } else {
+                        field.append(c);
+                    }
+                } else if (c == '"') {
+                    quoted = true;
+                } else if (c == ',') {
+                    fields.add(field.toString());
+                    field.setLength(0);
+                } else {
+                    field.append(c);
+                }
+            }
+            if (quoted) {
+                throw new MalformedRowException("Unterminated quoted field");
+            }
+            fields.add(field.toString());
+            return fields;
+        }
+    }
+    
+    // One JSON object per line
+    private static final class Ndjson extends ImportRowReader {
+        
+        private final ObjectMapper objectMapper;
+        
+        Ndjson(InputStream input, ObjectMapper objectMapper) {
+            super(input);
+            this.objectMapper = objectMapper;
+        }
+        
+        @Override
+        Map<String, String> next() throws IOException, MalformedRowException {
+            String line = nextLine();
+            if (line == null) {
+                return null;
+            }
+            JsonNode node;
+            try {
+                node = objectMapper.readTree(line);
+            } catch (JsonProcessingException e) {
+                throw new MalformedRowException("Invalid JSON: " + e.getOriginalMessage());
+            }
+            if (!node.isObject()) {
+                throw new MalformedRowException("Expected a JSON object");
+            }
+            Map<String, String> row = new HashMap<>();
+            Iterator<Map.Entry<String, JsonNode>> fields = node.fields();
+            while (fields.hasNext()) {
+                Map.Entry<String, JsonNode> field = fields.next();
+                JsonNode value = field.getValue();
+                // asText() would turn a nested object or array into ""
+                if (value.isContainerNode()) {
+                    throw new MalformedRowException("Field " + field.getKey() + " must be a string, number, boolean or null");
+                }
+                row.put(normalizeField(field.getKey()), value.isNull() ? null : value.asText());
+            }
+            return row;
+        }
+    }
+}
@@ -0,0 +1,372 @@
+package barbershopAPI.barbershopAPI.services.imports;
+
+import barbershopAPI.barbershopAPI.dto.CalendarView;
+import barbershopAPI.barbershopAPI.dto.ImportResult;
+import barbershopAPI.barbershopAPI.services.NotificationService;
+import barbershopAPI.barbershopAPI.services.events.EntityChange;
+import barbershopAPI.barbershopAPI.services.events.EntityChangePublisher;
+import barbershopAPI.barbershopAPI.services.reminders.ReminderScheduler;
+import barbershopAPI.barbershopAPI.services.schedule.AvailabilityEngine;
+import barbershopAPI.barbershopAPI.services.schedule.CalendarIndex;
+import barbershopAPI.barbershopAPI.services.search.ClientSearchIndex;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+// Bulk import of clients and appointments from CSV or NDJSON.
+// Rows are read one at a time and inserted in JDBC batches of app.import.batch-size, each batch
+// in its own transaction, so memory stays flat however large the file is. When a batch fails
+// (constraint violation, overlapping appointment) it is rolled back and replayed row by row,
+// so only the offending rows are reported. No per-row notifications are created:
+// one summary notification is sent once the import finishes.
+@Service
+public class ImportService {
+    
+    private static final Logger log = LoggerFactory.getLogger(ImportService.class);
+    
+    public enum Entity { CLIENTS, APPOINTMENTS }
+    
+    public enum Format { CSV, NDJSON }
+    
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+    
+    @Autowired
+    private ObjectMapper objectMapper;
+    
+    @Autowired
+    private NotificationService notificationService;
+    
+    @Autowired
+    private ClientSearchIndex clientSearchIndex;
+    
+    @Autowired
+    private AvailabilityEngine availabilityEngine;
+    
+    @Autowired
+    private CalendarIndex calendarIndex;
+    
+    @Autowired
+    private ReminderScheduler reminderScheduler;
+    
+    @Autowired
+    private EntityChangePublisher entityChangePublisher;
+    
+    @Value("${app.import.batch-size:500}")
+    private int batchSize;
+    
+    @Value("${app.import.max-reported-errors:1000}")
+    private int maxReportedErrors;
+    
+    private TransactionTemplate transactionTemplate;
+    
+    @PostConstruct
+    void init() {
+        transactionTemplate = new TransactionTemplate(transactionManager);
+        transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+    
+    public ImportResult importRows(Entity entity, Format format, InputStream input) throws IOException {
+        ImportResult result = new ImportResult(entity.name().toLowerCase(), maxReportedErrors);
+        ImportRowReader reader = format == Format.CSV
+            ? ImportRowReader.csv(input)
+            : ImportRowReader.ndjson(input, objectMapper);
+        RowImporter importer = entity == Entity.CLIENTS ? new ClientImporter() : new AppointmentImporter();
+        
+        List<PendingRow> batch = new ArrayList<>(Math.max(1, batchSize));
+        while (true) {
+            Map<String, String> row;
+            try {
+                row = reader.next();
+            } catch (ImportRowReader.MalformedRowException e) {
+                result.rowProcessed();
+                result.rowFailed(reader.lineNumber(), e.getMessage());
+                continue;
+            }
+            if (row == null) {
+                break;
+            }
+            result.rowProcessed();
+            try {
+                batch.add(new PendingRow(reader.lineNumber(), importer.toParams(row)));
+            } catch (IllegalArgumentException e) {
+                result.rowFailed(reader.lineNumber(), e.getMessage());
+                continue;
+            }
+            if (batch.size() >= batchSize) {
+                insert(importer, batch, result);
+                batch.clear();
+            }
+        }
+        insert(importer, batch, result);
+        
+        log.info("Imported {} {} ({} rows, {} failed)", result.getInserted(), result.getEntity(), result.getProcessed(), result.getFailed());
+        notificationService.notifySystemMessage(
+            "Importação Concluída",
+            result.getInserted() + " " + importer.label() + " importados, " + result.getFailed() + " linhas com erro"
+        );
+        return result;
+    }
+    
+    private void insert(RowImporter importer, List<PendingRow> batch, ImportResult result) {
+        if (batch.isEmpty()) {
+            return;
+        }
+        try {
+            List<Object> keys = transactionTemplate.execute(status -> executeBatch(importer, batch));
+            for (int i = 0; i < batch.size(); i++) {
+                importer.inserted(batch.get(i).params, keys.get(i));
+            }
+            result.rowsInserted(batch.size());
+        } catch (DataAccessException batchError) {
+            // One bad row fails the whole batch: replay it row by row to find which
+            for (PendingRow row : batch) {
+                try {
+                    List<Object> keys = transactionTemplate.execute(status -> executeBatch(importer, List.of(row)));
+                    importer.inserted(row.params, keys.get(0));
+                    result.rowsInserted(1);
+                } catch (DataAccessException rowError) {
+                    result.rowFailed(row.line, rowError.getMostSpecificCause().getMessage());
+                }
+            }
+        }
+    }
+    
+    // Runs inside the batch transaction; returns the generated key of each row (null when the id is client-side).
+    // Publishes one entity change per row, delivered to every node once the batch commits.
+    private List<Object> executeBatch(RowImporter importer, List<PendingRow> rows) {
+        List<Object> keys = insertBatch(importer, rows);
+        List<Object> ids = new ArrayList<>(rows.size());
+        for (int i = 0; i < rows.size(); i++) {
+            ids.add(importer.changedId(rows.get(i).params, keys.get(i)));
+        }
+        entityChangePublisher.publishAll(importer.changeKind(), ids);
+        return keys;
+    }
+    
+    private List<Object> insertBatch(RowImporter importer, List<PendingRow> rows) {
+        return jdbcTemplate.execute((ConnectionCallback<List<Object>>) connection -> {
+            String[] keyColumns = importer.generatedKeyColumns();
+            try (PreparedStatement statement = keyColumns.length > 0
+                    ? connection.prepareStatement(importer.sql(), keyColumns)
+                    : connection.prepareStatement(importer.sql())) {
+                for (PendingRow row : rows) {
+                    for (int i = 0; i < row.params.length; i++) {
+                        statement.setObject(i + 1, row.params[i]);
+                    }
+                    statement.addBatch();
+                }
+                statement.executeBatch();
+                
+                List<Object> keys = new ArrayList<>(rows.size());
+                if (keyColumns.length > 0) {
+                    try (ResultSet generated = statement.getGeneratedKeys()) {
+                        while (generated.next()) {
+                            keys.add(generated.getObject(1));
+                        }
+                    }
+                }
+                while (keys.size() < rows.size()) {
+                    keys.add(null);
+                }
+                return keys;
+            }
+        });
+    }
+    
+    private static String field(Map<String, String> row, String field) {
+        return row.get(ImportRowReader.normalizeField(field));
+    }
+    
+    private static String required(Map<String, String> row, String field) {
+        String value = field(row, field);
+        if (value == null) {
+            throw new IllegalArgumentException("Missing " + field);
+        }
+        return value;
+    }
+    
+    private static Long optionalLong(Map<String, String> row, String field) {
+        String value = field(row, field);
+        if (value == null) {
+            return null;
+        }
+        try {
+            return Long.valueOf(value);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid " + field + ": " + value);
+        }
+    }
+    
+    private static LocalDateTime dateTime(Map<String, String> row, String field) {
+        String value = required(row, field);
+        try {
+            return LocalDateTime.parse(value);
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException("Invalid " + field + ": " + value);
+        }
+    }
+    
+    private record PendingRow(long line, Object[] params) {
+    }
+    
+    private interface RowImporter {
+        
+        String sql();
+        
+        String[] generatedKeyColumns();
+        
+        // Validates one row; IllegalArgumentException rejects it
+        Object[] toParams(Map<String, String> row);
+        
+        // Called after the row's batch has committed, to keep the in-memory indexes current
+        void inserted(Object[] params, Object generatedKey);
+        
+        EntityChange.Kind changeKind();
+        
+        // Id of the inserted record, for its entity change event
+        Object changedId(Object[] params, Object generatedKey);
+        
+        String label();
+    }
+    
+    // Columns: name, phone, email (optional)
+    private final class ClientImporter implements RowImporter {
+        
+        @Override
+        public String sql() {
+            return "INSERT INTO clients (name, phone, email) VALUES (?, ?, ?)";
+        }
+        
+        @Override
+        public String[] generatedKeyColumns() {
+            return new String[] {"id"};
+        }
+        
+        @Override
+        public Object[] toParams(Map<String, String> row) {
+            return new Object[] {required(row, "name"), required(row, "phone"), field(row, "email")};
+        }
+        
+        @Override
+        public void inserted(Object[] params, Object generatedKey) {
+            if (generatedKey instanceof Number id) {
+                clientSearchIndex.putClient(id.longValue(), (String) params[0], (String) params[1]);
+            }
+        }
+        
+        @Override
+        public EntityChange.Kind changeKind() {
+            return EntityChange.Kind.CLIENT;
+        }
+        
+        @Override
+        public Object changedId(Object[] params, Object generatedKey) {
+            return generatedKey;
+        }
+        
+        @Override
+        public String label() {
+            return "clientes";
+        }
+    }
+    
+    // Columns: barber_id, service_id, client_id, starts_at, ends_at (ISO local date-time),
+    // status (default CONFIRMED), notes. Overlaps are rejected by appointments_no_overlap.
+    private final class AppointmentImporter implements RowImporter {
+        
+        private static final String DEFAULT_STATUS = "CONFIRMED";
+        
+        @Override
+        public String sql() {
+            return "INSERT INTO appointments (id, barber_id, service_id, client_id, starts_at, ends_at, status, notes) " +
+                   "VALUES (?, ?, ?, ?, ?, ?, ?, ?)";
+        }
+        
+        @Override
+        public String[] generatedKeyColumns() {
+            return new String[0];
+        }
+        
+        @Override
+        public Object[] toParams(Map<String, String> row) {
+            Long barberId = optionalLong(row, "barber_id");
+            if (barberId == null) {
+                throw new IllegalArgumentException("Missing barber_id");
+            }
+            LocalDateTime startsAt = dateTime(row, "starts_at");
+            LocalDateTime endsAt = dateTime(row, "ends_at");
+            if (!endsAt.isAfter(startsAt)) {
+                throw new IllegalArgumentException("ends_at must be after starts_at");
+            }
+            String status = field(row, "status");
+            return new Object[] {
+                UUID.randomUUID(),
+                barberId,
+                optionalLong(row, "service_id"),
+                optionalLong(row, "client_id"),
+                Timestamp.valueOf(startsAt),
+                Timestamp.valueOf(endsAt),
+                status == null ? DEFAULT_STATUS : status.toUpperCase(),
+                field(row, "notes")
+            };
+        }
+        
+        @Override
+        public void inserted(Object[] params, Object generatedKey) {
+            String id = params[0].toString();
+            long barberId = (Long) params[1];
+            Long serviceId = (Long) params[2];
+            LocalDateTime startsAt = ((Timestamp) params[4]).toLocalDateTime();
+            LocalDateTime endsAt = ((Timestamp) params[5]).toLocalDateTime();
+            String status = (String) params[6];
+            
+            calendarIndex.putAppointment(new CalendarView.Appointment(
+                id, barberId, serviceId, (Long) params[3], startsAt, endsAt, status, (String) params[7]));
+            if (!"CANCELLED".equals(status) && endsAt.isAfter(LocalDateTime.now())) {
+                availabilityEngine.putAppointment(id, barberId, startsAt, endsAt, availabilityEngine.bufferAfterMin(serviceId));
+                reminderScheduler.schedule(id, (Long) params[3], startsAt);
+            }
+        }
+        
+        @Override
+        public EntityChange.Kind changeKind() {
+            return EntityChange.Kind.APPOINTMENT;
+        }
+        
+        @Override
+        public Object changedId(Object[] params, Object generatedKey) {
+            return params[0];
+        }
+        
+        @Override
+        public String label() {
+            return "marcações";
+        }
+    }
+}
@@ -0,0 +1,288 @@
+package barbershopAPI.barbershopAPI.services.reminders;
+
+import barbershopAPI.barbershopAPI.entities.NotificationRef;
+import barbershopAPI.barbershopAPI.services.NotificationService;
+import barbershopAPI.barbershopAPI.services.events.EntityChange;
+import barbershopAPI.barbershopAPI.services.events.EntityChangeListener;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+// Reminders for upcoming appointments (by default 24h and 1h before), without polling the appointments table.
+// Upcoming appointments are loaded once at startup into a hierarchical timing wheel; bookings, cancellations
+// and reschedules keep it current through schedule/cancel on this node and appointment change events from
+// every node. When a reminder comes due the appointment is read again and stale reminders (cancelled or
+// moved meanwhile) are dropped; otherwise NotificationService.notifyAppointmentReminder is called with a key
+// per appointment, offset and start time. Every node fires the same reminders: the key lets only one insert
+// the notification and send the SMS, and also makes a reminder fired again after a restart a no-op.
+@Service
+public class ReminderScheduler implements EntityChangeListener {
+    
+    private static final Logger log = LoggerFactory.getLogger(ReminderScheduler.class);
+    
+    private static final DateTimeFormatter TIME_FORMAT = DateTimeFormatter.ofPattern("dd/MM HH:mm");
+    private static final long RETRY_DELAY_MS = 60_000;
+    private static final String CANCELLED = "CANCELLED";
+    
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    
+    @Autowired
+    private NotificationService notificationService;
+    
+    @Value("${app.reminders.enabled:true}")
+    private boolean enabled;
+    
+    // How long before the start each reminder goes out
+    @Value("${app.reminders.offsets:24h,1h}")
+    private List<Duration> offsets;
+    
+    @Value("${app.reminders.tick-ms:1000}")
+    private long tickMs;
+    
+    // On startup, reminders that came due at most this long ago (while the app was down) are still sent
+    @Value("${app.reminders.late-grace:15m}")
+    private Duration lateGrace;
+    
+    private final Map<String, List<TimingWheel.Timer<Reminder>>> byAppointment = new HashMap<>();
+    private TimingWheel<Reminder> wheel;
+    private ScheduledExecutorService ticker;
+    
+    @PostConstruct
+    void init() {
+        wheel = new TimingWheel<>(tickMs, System.currentTimeMillis());
+        ticker = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "reminder-wheel");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+    
+    @PreDestroy
+    void stop() {
+        ticker.shutdownNow();
+    }
+    
+    // Recovery: every appointment that has not started yet is put back on the wheel
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        if (!enabled) {
+            return;
+        }
+        int loaded = reload(LocalDateTime.now().minus(lateGrace));
+        ticker.scheduleWithFixedDelay(this::tick, tickMs, tickMs, TimeUnit.MILLISECONDS);
+        log.info("Reminder scheduler loaded {} upcoming appointments ({} reminders)", loaded, pending());
+    }
+    
+    // Bookings, cancellations and reschedules from any node
+    @Override
+    public void onEntityChange(EntityChange change) {
+        if (!enabled) {
+            return;
+        }
+        if (change.getKind() == EntityChange.Kind.APPOINTMENT) {
+            List<AppointmentState> found = findAppointment(change.getId());
+            AppointmentState appointment = found.isEmpty() ? null : found.get(0);
+            if (appointment == null || appointment.cancelled() || !appointment.startsAt().isAfter(LocalDateTime.now())) {
+                cancel(change.getId());
+            } else {
+                update(change.getId(), appointment.clientId(), appointment.startsAt(), LocalDateTime.now());
+            }
+        } else if (change.getKind() == EntityChange.Kind.RESYNC) {
+            reload(LocalDateTime.now());
+        }
+    }
+    
+    // Appointment booked or rescheduled: replaces its reminders. Reminders already due are skipped.
+    public void schedule(String appointmentId, Long clientId, LocalDateTime startsAt) {
+        if (enabled) {
+            schedule(appointmentId, clientId, startsAt, LocalDateTime.now());
+        }
+    }
+    
+    // Appointment cancelled or deleted
+    public void cancel(String appointmentId) {
+        synchronized (wheel) {
+            List<TimingWheel.Timer<Reminder>> timers = byAppointment.remove(appointmentId);
+            if (timers != null) {
+                timers.forEach(wheel::cancel);
+            }
+        }
+    }
+    
+    public int pending() {
+        synchronized (wheel) {
+            return wheel.size();
+        }
+    }
+    
+    // Puts every upcoming appointment on the wheel; returns how many. Ids tracked before the reread and not
+    // found by it were cancelled or deleted meanwhile; ids added after it started are left alone.
+    private int reload(LocalDateTime notBefore) {
+        LocalDateTime now = LocalDateTime.now();
+        Set<String> stale;
+        synchronized (wheel) {
+            stale = new HashSet<>(byAppointment.keySet());
+        }
+        int[] loaded = {0};
+        jdbcTemplate.query(
+            "SELECT id, client_id, starts_at FROM appointments WHERE starts_at > ? AND status <> 'CANCELLED'",
+            rs -> {
+                String id = rs.getString("id");
+                long clientId = rs.getLong("client_id");
+                update(id, rs.wasNull() ? null : clientId, rs.getTimestamp("starts_at").toLocalDateTime(), notBefore);
+                stale.remove(id);
+                loaded[0]++;
+            },
+            Timestamp.valueOf(now));
+        stale.forEach(this::cancel);
+        return loaded[0];
+    }
+    
+    // Like schedule, but leaves reminders that already match alone (e.g. this node's own booking event)
+    private void update(String appointmentId, Long clientId, LocalDateTime startsAt, LocalDateTime notBefore) {
+        synchronized (wheel) {
+            List<TimingWheel.Timer<Reminder>> timers = byAppointment.get(appointmentId);
+            if (timers != null && !timers.isEmpty()) {
+                Reminder current = timers.get(0).item();
+                if (current.startsAt().equals(startsAt) && Objects.equals(current.clientId(), clientId)) {
+                    return;
+                }
+            }
+        }
+        schedule(appointmentId, clientId, startsAt, notBefore);
+    }
+    
+    private void schedule(String appointmentId, Long clientId, LocalDateTime startsAt, LocalDateTime notBefore) {
+        List<TimingWheel.Timer<Reminder>> timers = new ArrayList<>(offsets.size());
+        synchronized (wheel) {
+            List<TimingWheel.Timer<Reminder>> previous = byAppointment.remove(appointmentId);
+            if (previous != null) {
+                previous.forEach(wheel::cancel);
+            }
+            for (Duration offset : offsets) {
+                LocalDateTime remindAt = startsAt.minus(offset);
+                if (remindAt.isBefore(notBefore)) {
+                    continue;
+                }
+                Reminder reminder = new Reminder(appointmentId, clientId, startsAt, offset);
+                timers.add(wheel.schedule(toEpochMs(remindAt), reminder));
+            }
+            if (!timers.isEmpty()) {
+                byAppointment.put(appointmentId, timers);
+            }
+        }
+    }
+    
+    private void tick() {
+        List<Reminder> due = new ArrayList<>();
+        synchronized (wheel) {
+            wheel.advance(System.currentTimeMillis(), due::add);
+        }
+        // Sent outside the lock: bookings never wait on the notification insert
+        for (Reminder reminder : due) {
+            settle(reminder, fire(reminder));
+        }
+    }
+    
+    // Returns false when the reminder should be retried
+    private boolean fire(Reminder reminder) {
+        try {
+            List<AppointmentState> found = findAppointment(reminder.appointmentId());
+            AppointmentState appointment = found.isEmpty() ? null : found.get(0);
+            // Cancelled, deleted or moved (possibly on another node) since this reminder was scheduled
+            if (appointment == null || appointment.cancelled() || !appointment.startsAt().equals(reminder.startsAt())) {
+                log.debug("Dropping stale reminder for appointment {}", reminder.appointmentId());
+                return true;
+            }
+            notificationService.notifyAppointmentReminder(
+                NotificationRef.appointment(reminder.appointmentId()),
+                appointment.clientName() != null ? appointment.clientName() : "Cliente",
+                reminder.startsAt().format(TIME_FORMAT),
+                appointment.clientPhone(),
+                "reminder:" + reminder.appointmentId() + ":" + reminder.offset().toMinutes() + ":" + reminder.startsAt()
+            );
+            return true;
+        } catch (RuntimeException e) {
+            log.warn("Reminder for appointment {} failed: {}", reminder.appointmentId(), e.getMessage());
+            return false;
+        }
+    }
+    
+    // A fired reminder stays in the per-appointment index until it is settled here: dropped once sent,
+    // or put back on the wheel to retry. One no longer in the index was cancelled or rescheduled while
+    // it fired, and is not retried.
+    private void settle(Reminder reminder, boolean done) {
+        synchronized (wheel) {
+            List<TimingWheel.Timer<Reminder>> timers = byAppointment.get(reminder.appointmentId());
+            int index = -1;
+            for (int i = 0; timers != null && i < timers.size(); i++) {
+                if (timers.get(i).item() == reminder) {
+                    index = i;
+                }
+            }
+            if (index < 0) {
+                return;
+            }
+            if (!done && reminder.startsAt().isAfter(LocalDateTime.now())) {
+                timers.set(index, wheel.schedule(System.currentTimeMillis() + RETRY_DELAY_MS, reminder));
+                return;
+            }
+            timers.remove(index);
+            if (timers.isEmpty()) {
+                byAppointment.remove(reminder.appointmentId());
+            }
+        }
+    }
+    
+    // Current state of an appointment and its client; empty when it no longer exists
+    private List<AppointmentState> findAppointment(String appointmentId) {
+        return jdbcTemplate.query(
+            "SELECT a.client_id, a.starts_at, a.status, c.name, c.phone " +
+            "FROM appointments a LEFT JOIN clients c ON c.id = a.client_id WHERE a.id = ?",
+            (rs, rowNum) -> {
+                long clientId = rs.getLong("client_id");
+                return new AppointmentState(
+                    rs.wasNull() ? null : clientId,
+                    rs.getTimestamp("starts_at").toLocalDateTime(),
+                    CANCELLED.equals(rs.getString("status")),
+                    rs.getString("name"),
+                    rs.getString("phone"));
+            },
+            UUID.fromString(appointmentId));
+    }
+    
+    private static long toEpochMs(LocalDateTime time) {
+        return time.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+    
+    private record Reminder(String appointmentId, Long clientId, LocalDateTime startsAt, Duration offset) {
+    }
+    
+    private record AppointmentState(Long clientId, LocalDateTime startsAt, boolean cancelled, String clientName, String clientPhone) {
+    }
+}
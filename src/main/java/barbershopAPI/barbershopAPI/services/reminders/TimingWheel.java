@@ -0,0 +1,146 @@
+package barbershopAPI.barbershopAPI.services.reminders;
+
+import java.util.function.Consumer;
+
+// Hierarchical timing wheel: LEVELS wheels of SLOTS buckets each, level n covering SLOTS^(n+1) ticks.
+// A timer goes into the coarsest level its distance needs and cascades down to finer levels as
+// time approaches, so schedule and cancel are O(1) (doubly linked buckets) and each tick only
+// touches the buckets that are due. Timers beyond the top level's range wait there and are
+// re-placed every time their bucket cascades. Not thread-safe: callers synchronize.
+final class TimingWheel<T> {
+    
+    private static final int SLOT_BITS = 6;
+    private static final int SLOTS = 1 << SLOT_BITS;
+    private static final int LEVELS = 4;
+    private static final long MAX_DISTANCE = 1L << (SLOT_BITS * LEVELS);
+    
+    private final long tickMs;
+    private final Bucket<T>[][] buckets;
+    private long currentTick;
+    private int size;
+    
+    @SuppressWarnings("unchecked")
+    TimingWheel(long tickMs, long startMs) {
+        this.tickMs = tickMs;
+        this.currentTick = startMs / tickMs;
+        this.buckets = new Bucket[LEVELS][SLOTS];
+        for (int level = 0; level < LEVELS; level++) {
+            for (int slot = 0; slot < SLOTS; slot++) {
+                buckets[level][slot] = new Bucket<>();
+            }
+        }
+    }
+    
+    // Deadlines already past fire on the next advance
+    Timer<T> schedule(long deadlineMs, T item) {
+        Timer<T> timer = new Timer<>(Math.max(ceilDiv(deadlineMs, tickMs), currentTick + 1), item);
+        place(timer);
+        size++;
+        return timer;
+    }
+    
+    // False when the timer already fired or was cancelled
+    boolean cancel(Timer<T> timer) {
+        if (timer.bucket == null) {
+            return false;
+        }
+        timer.unlink();
+        size--;
+        return true;
+    }
+    
+    // Move time forward to nowMs, handing every timer that came due to expired (in deadline order per tick)
+    void advance(long nowMs, Consumer<T> expired) {
+        long targetTick = nowMs / tickMs;
+        while (currentTick < targetTick) {
+            currentTick++;
+            for (int level = LEVELS - 1; level > 0; level--) {
+                if ((currentTick & ((1L << (SLOT_BITS * level)) - 1)) == 0) {
+                    cascade(buckets[level][slotOf(currentTick, level)]);
+                }
+            }
+            Bucket<T> due = buckets[0][slotOf(currentTick, 0)];
+            while (due.head.next != due.head) {
+                Timer<T> timer = due.head.next;
+                timer.unlink();
+                size--;
+                expired.accept(timer.item);
+            }
+        }
+    }
+    
+    int size() {
+        return size;
+    }
+    
+    private void cascade(Bucket<T> bucket) {
+        while (bucket.head.next != bucket.head) {
+            Timer<T> timer = bucket.head.next;
+            timer.unlink();
+            place(timer);
+        }
+    }
+    
+    private void place(Timer<T> timer) {
+        long distance = timer.tick - currentTick;
+        long tick = distance < MAX_DISTANCE ? timer.tick : currentTick + MAX_DISTANCE - 1;
+        int level = 0;
+        while (level < LEVELS - 1 && (tick - currentTick) >= (1L << (SLOT_BITS * (level + 1)))) {
+            level++;
+        }
+        buckets[level][slotOf(tick, level)].append(timer);
+    }
+    
+    private static int slotOf(long tick, int level) {
+        return (int) ((tick >>> (SLOT_BITS * level)) & (SLOTS - 1));
+    }
+    
+    private static long ceilDiv(long value, long divisor) {
+        return -Math.floorDiv(-value, divisor);
+    }
+    
+    static final class Timer<T> {
+        
+        private final long tick;
+        private final T item;
+        private Timer<T> prev;
+        private Timer<T> next;
+        private Bucket<T> bucket;
+        
+        private Timer(long tick, T item) {
+            this.tick = tick;
+            this.item = item;
+        }
+        
+        T item() {
+            return item;
+        }
+        
+        private void unlink() {
+            prev.next = next;
+            next.prev = prev;
+            prev = null;
+            next = null;
+            bucket = null;
+        }
+    }
+    
+    private static final class Bucket<T> {
+        
+        // Sentinel of a circular doubly linked list
+        private final Timer<T> head = new Timer<>(0, null);
+        
+        Bucket() {
+            head.prev = head;
+            head.next = head;
+        }
+        
+        void append(Timer<T> timer) {
+            timer.prev = head.prev;
+            timer.next = head;
+            head.prev.next = timer;
+            head.prev = timer;
+            timer.bucket = this;
+        }
+    }
+}
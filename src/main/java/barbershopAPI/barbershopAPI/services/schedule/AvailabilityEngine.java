@@ -0,0 +1,232 @@
+package barbershopAPI.barbershopAPI.services.schedule;
+
+import org.springframework.stereotype.Service;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+
+// In-memory availability for the booking hot path.
+// Keeps a free-slot bitmap per barber and day that is patched incrementally when
+// appointments, working hours or time off change, so queries never touch the database.
+@Service
+public class AvailabilityEngine {
+    
+    private final Map<Long, BarberSchedule> schedules = new ConcurrentHashMap<>();
+    private final Map<Long, Long> workingHoursOwners = new ConcurrentHashMap<>();
+    private final Map<Long, Long> timeOffOwners = new ConcurrentHashMap<>();
+    private final Map<String, Long> appointmentOwners = new ConcurrentHashMap<>();
+    private final Map<Long, ServiceTiming> services = new ConcurrentHashMap<>();
+    
+    private volatile boolean loaded = false;
+    
+    // Service hooks: availability is always asked for a service, whose duration and buffer come from here
+    public void putService(long id, int durationMin, int bufferAfterMin) {
+        services.put(id, new ServiceTiming(durationMin, bufferAfterMin));
+    }
+    
+    public void removeService(long id) {
+        services.remove(id);
+    }
+    
+    public boolean hasService(long id) {
+        return services.containsKey(id);
+    }
+    
+    // Buffer kept free after an appointment of the service; 0 for unknown services
+    public int bufferAfterMin(Long serviceId) {
+        ServiceTiming timing = serviceId == null ? null : services.get(serviceId);
+        return timing == null ? 0 : timing.bufferAfterMin;
+    }
+    
+    // Working hours hooks
+    public void putWorkingHours(long id, long barberId, DayOfWeek dayOfWeek, LocalTime start, LocalTime end) {
+        Long previousBarber = workingHoursOwners.put(id, barberId);
+        if (previousBarber != null && previousBarber != barberId) {
+            withSchedule(previousBarber, schedule -> schedule.removeWorkingHours(id));
+        }
+        withSchedule(barberId, schedule -> schedule.putWorkingHours(id, dayOfWeek, start, end));
+    }
+    
+    public void removeWorkingHours(long id) {
+        Long barberId = workingHoursOwners.remove(id);
+        if (barberId != null) {
+            withSchedule(barberId, schedule -> schedule.removeWorkingHours(id));
+        }
+    }
+    
+    // Time off hooks
+    public void putTimeOff(long id, long barberId, LocalDateTime startsAt, LocalDateTime endsAt) {
+        Long previousBarber = timeOffOwners.put(id, barberId);
+        if (previousBarber != null && previousBarber != barberId) {
+            withSchedule(previousBarber, schedule -> schedule.removeBusy(timeOffKey(id)));
+        }
+        withSchedule(barberId, schedule -> schedule.putBusy(timeOffKey(id), startsAt, endsAt));
+    }
+    
+    public void removeTimeOff(long id) {
+        Long barberId = timeOffOwners.remove(id);
+        if (barberId != null) {
+            withSchedule(barberId, schedule -> schedule.removeBusy(timeOffKey(id)));
+        }
+    }
+    
+    // Appointment hooks (create and reschedule both go through putAppointment)
+    public void putAppointment(String id, long barberId, LocalDateTime startsAt, LocalDateTime endsAt, int bufferAfterMin) {
+        Long previousBarber = appointmentOwners.put(id, barberId);
+        if (previousBarber != null && previousBarber != barberId) {
+            withSchedule(previousBarber, schedule -> schedule.removeBusy(appointmentKey(id)));
+        }
+        LocalDateTime blockedUntil = endsAt.plusMinutes(bufferAfterMin);
+        withSchedule(barberId, schedule -> schedule.putBusy(appointmentKey(id), startsAt, blockedUntil));
+    }
+    
+    public void removeAppointment(String id) {
+        Long barberId = appointmentOwners.remove(id);
+        if (barberId != null) {
+            withSchedule(barberId, schedule -> schedule.removeBusy(appointmentKey(id)));
+        }
+    }
+    
+    // Start times on the given day where the service (duration plus buffer) fits; empty for unknown services
+    public List<LocalTime> getAvailableStarts(long barberId, long serviceId, LocalDate date, int stepMin) {
+        BarberSchedule schedule = schedules.get(barberId);
+        ServiceTiming timing = services.get(serviceId);
+        if (schedule == null || timing == null) {
+            return new ArrayList<>();
+        }
+        int length = SlotBitmap.slotsFor(timing.durationMin + timing.bufferAfterMin);
+        int stepSlots = SlotBitmap.slotsFor(stepMin);
+        List<Integer> slots;
+        synchronized (schedule) {
+            slots = schedule.freeSlots(date).runStarts(length).setSlots(stepSlots);
+        }
+        int firstSlot = firstBookableSlot(date);
+        List<LocalTime> starts = new ArrayList<>(slots.size());
+        for (int slot : slots) {
+            if (slot >= firstSlot) {
+                starts.add(SlotBitmap.timeOf(slot));
+            }
+        }
+        return starts;
+    }
+    
+    // Whether [startsAt, blockedUntil) lies within working hours and clear of other bookings and time off.
+    // Intervals crossing midnight are not bookable.
+    public boolean isFree(long barberId, LocalDateTime startsAt, LocalDateTime blockedUntil) {
+        LocalDate day = startsAt.toLocalDate();
+        LocalDateTime dayEnd = day.plusDays(1).atStartOfDay();
+        if (!blockedUntil.isAfter(startsAt) || blockedUntil.isAfter(dayEnd)) {
+            return false;
+        }
+        BarberSchedule schedule = schedules.get(barberId);
+        if (schedule == null) {
+            return false;
+        }
+        int from = SlotBitmap.slotOf(startsAt.toLocalTime());
+        int to = blockedUntil.equals(dayEnd) ? SlotBitmap.SLOTS_PER_DAY : SlotBitmap.slotCeil(blockedUntil.toLocalTime());
+        synchronized (schedule) {
+            return schedule.freeSlots(day).allSet(from, to);
+        }
+    }
+    
+    // Multi-barber, multi-day variant: barberId -> date -> start times (days without slots are omitted)
+    public Map<Long, Map<LocalDate, List<LocalTime>>> getAvailableStarts(Collection<Long> barberIds, long serviceId,
+                                                                         LocalDate from, LocalDate to, int stepMin) {
+        Map<Long, Map<LocalDate, List<LocalTime>>> result = new LinkedHashMap<>();
+        for (Long barberId : barberIds) {
+            Map<LocalDate, List<LocalTime>> byDay = new LinkedHashMap<>();
+            for (LocalDate day = from; !day.isAfter(to); day = day.plusDays(1)) {
+                List<LocalTime> starts = getAvailableStarts(barberId, serviceId, day, stepMin);
+                if (!starts.isEmpty()) {
+                    byDay.put(day, starts);
+                }
+            }
+            result.put(barberId, byDay);
+        }
+        return result;
+    }
+    
+    // Forget appointments and time off that ended before the given day (AvailabilityLoader runs this daily)
+    public void evictBefore(LocalDate day) {
+        for (Map.Entry<Long, BarberSchedule> entry : schedules.entrySet()) {
+            BarberSchedule schedule = entry.getValue();
+            List<String> evicted;
+            synchronized (schedule) {
+                evicted = schedule.evictBefore(day);
+            }
+            for (String key : evicted) {
+                if (key.startsWith("A")) {
+                    appointmentOwners.remove(key.substring(1), entry.getKey());
+                } else {
+                    timeOffOwners.remove(Long.parseLong(key.substring(1)), entry.getKey());
+                }
+            }
+        }
+    }
+    
+    public boolean isLoaded() {
+        return loaded;
+    }
+    
+    void markLoaded() {
+        this.loaded = true;
+    }
+    
+    // Ids currently held, for reconciling after a reload (AvailabilityLoader)
+    Set<Long> serviceIds() {
+        return new HashSet<>(services.keySet());
+    }
+    
+    Set<Long> workingHoursIds() {
+        return new HashSet<>(workingHoursOwners.keySet());
+    }
+    
+    Set<Long> timeOffIds() {
+        return new HashSet<>(timeOffOwners.keySet());
+    }
+    
+    Set<String> appointmentIds() {
+        return new HashSet<>(appointmentOwners.keySet());
+    }
+    
+    private void withSchedule(long barberId, Consumer<BarberSchedule> action) {
+        BarberSchedule schedule = schedules.computeIfAbsent(barberId, id -> new BarberSchedule());
+        synchronized (schedule) {
+            action.accept(schedule);
+        }
+    }
+    
+    // Slots that already started today cannot be booked
+    private static int firstBookableSlot(LocalDate date) {
+        LocalDateTime now = LocalDateTime.now();
+        if (date.isBefore(now.toLocalDate())) {
+            return SlotBitmap.SLOTS_PER_DAY;
+        }
+        if (date.isAfter(now.toLocalDate())) {
+            return 0;
+        }
+        return SlotBitmap.slotCeil(now.toLocalTime());
+    }
+    
+    private static String timeOffKey(long id) {
+        return "T" + id;
+    }
+    
+    private static String appointmentKey(String id) {
+        return "A" + id;
+    }
+    
+    private record ServiceTiming(int durationMin, int bufferAfterMin) {
+    }
+}
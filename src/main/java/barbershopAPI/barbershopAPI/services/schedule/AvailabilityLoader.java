@@ -0,0 +1,173 @@
+package barbershopAPI.barbershopAPI.services.schedule;
+
+import barbershopAPI.barbershopAPI.services.events.EntityChange;
+import barbershopAPI.barbershopAPI.services.events.EntityChangeListener;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.sql.Timestamp;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.UUID;
+
+// Fills the AvailabilityEngine from the database at startup.
+// After that the engine is kept current through its put/remove hooks on this node and through
+// entity change events from every node (each rereads the changed row); past days are evicted nightly.
+@Component
+@Lazy(false)
+public class AvailabilityLoader implements EntityChangeListener {
+    
+    private static final Logger log = LoggerFactory.getLogger(AvailabilityLoader.class);
+    
+    private static final String SERVICES =
+        "SELECT id, duration_min, COALESCE(buffer_after_min, 0) AS buffer_after_min FROM services";
+    private static final String WORKING_HOURS =
+        "SELECT id, barber_id, day_of_week, start_time, end_time FROM working_hours";
+    private static final String TIME_OFF =
+        "SELECT id, barber_id, starts_at, ends_at FROM time_off WHERE ends_at > ?";
+    private static final String APPOINTMENTS =
+        "SELECT a.id, a.barber_id, a.starts_at, a.ends_at, COALESCE(s.buffer_after_min, 0) AS buffer_after_min " +
+        "FROM appointments a LEFT JOIN services s ON s.id = a.service_id " +
+        "WHERE a.ends_at > ? AND a.status <> 'CANCELLED'";
+    
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    
+    @Autowired
+    private AvailabilityEngine availabilityEngine;
+    
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        reload();
+        availabilityEngine.markLoaded();
+        log.info("Availability engine loaded");
+    }
+    
+    @Override
+    public void onEntityChange(EntityChange change) {
+        switch (change.getKind()) {
+            case SERVICE -> {
+                if (putServices(SERVICES + " WHERE id = ?", change.getLongId()).isEmpty()) {
+                    availabilityEngine.removeService(change.getLongId());
+                }
+            }
+            case WORKING_HOURS -> {
+                if (putWorkingHours(WORKING_HOURS + " WHERE id = ?", change.getLongId()).isEmpty()) {
+                    availabilityEngine.removeWorkingHours(change.getLongId());
+                }
+            }
+            case TIME_OFF -> {
+                if (putTimeOff(TIME_OFF + " AND id = ?", today(), change.getLongId()).isEmpty()) {
+                    availabilityEngine.removeTimeOff(change.getLongId());
+                }
+            }
+            // Cancelled or past appointments are not found, which frees their slots
+            case APPOINTMENT -> {
+                if (putAppointments(APPOINTMENTS + " AND a.id = ?", today(), UUID.fromString(change.getId())).isEmpty()) {
+                    availabilityEngine.removeAppointment(change.getId());
+                }
+            }
+            case RESYNC -> reload();
+            default -> {
+            }
+        }
+    }
+    
+    @Scheduled(cron = "${app.availability.evict-cron:0 5 0 * * *}")
+    public void evictPastDays() {
+        availabilityEngine.evictBefore(LocalDate.now());
+    }
+    
+    // Rereads every table. Ids taken before the reread and not found by it were deleted meanwhile;
+    // ids added after it started are left alone, their own events refresh them.
+    private void reload() {
+        Timestamp since = today();
+        
+        Set<Long> services = availabilityEngine.serviceIds();
+        services.removeAll(putServices(SERVICES));
+        services.forEach(availabilityEngine::removeService);
+        
+        Set<Long> workingHours = availabilityEngine.workingHoursIds();
+        workingHours.removeAll(putWorkingHours(WORKING_HOURS));
+        workingHours.forEach(availabilityEngine::removeWorkingHours);
+        
+        Set<Long> timeOff = availabilityEngine.timeOffIds();
+        timeOff.removeAll(putTimeOff(TIME_OFF, since));
+        timeOff.forEach(availabilityEngine::removeTimeOff);
+        
+        Set<String> appointments = availabilityEngine.appointmentIds();
+        appointments.removeAll(putAppointments(APPOINTMENTS, since));
+        appointments.forEach(availabilityEngine::removeAppointment);
+    }
+    
+    // Each put* applies the rows found and returns their ids
+    private Set<Long> putServices(String sql, Object... args) {
+        Set<Long> ids = new HashSet<>();
+        jdbcTemplate.query(sql, rs -> {
+            long id = rs.getLong("id");
+            availabilityEngine.putService(id, rs.getInt("duration_min"), rs.getInt("buffer_after_min"));
+            ids.add(id);
+        }, args);
+        return ids;
+    }
+    
+    private Set<Long> putWorkingHours(String sql, Object... args) {
+        Set<Long> ids = new HashSet<>();
+        jdbcTemplate.query(sql, rs -> {
+            long id = rs.getLong("id");
+            availabilityEngine.putWorkingHours(
+                id,
+                rs.getLong("barber_id"),
+                DayOfWeek.of(rs.getInt("day_of_week")),
+                rs.getTime("start_time").toLocalTime(),
+                rs.getTime("end_time").toLocalTime()
+            );
+            ids.add(id);
+        }, args);
+        return ids;
+    }
+    
+    private Set<Long> putTimeOff(String sql, Object... args) {
+        Set<Long> ids = new HashSet<>();
+        jdbcTemplate.query(sql, rs -> {
+            long id = rs.getLong("id");
+            availabilityEngine.putTimeOff(
+                id,
+                rs.getLong("barber_id"),
+                rs.getTimestamp("starts_at").toLocalDateTime(),
+                rs.getTimestamp("ends_at").toLocalDateTime()
+            );
+            ids.add(id);
+        }, args);
+        return ids;
+    }
+    
+    private Set<String> putAppointments(String sql, Object... args) {
+        Set<String> ids = new HashSet<>();
+        jdbcTemplate.query(sql, rs -> {
+            String id = rs.getString("id");
+            availabilityEngine.putAppointment(
+                id,
+                rs.getLong("barber_id"),
+                rs.getTimestamp("starts_at").toLocalDateTime(),
+                rs.getTimestamp("ends_at").toLocalDateTime(),
+                rs.getInt("buffer_after_min")
+            );
+            ids.add(id);
+        }, args);
+        return ids;
+    }
+    
+    private static Timestamp today() {
+        return Timestamp.valueOf(LocalDate.now().atStartOfDay());
+    }
+}
@@ -0,0 +1,177 @@
+package barbershopAPI.barbershopAPI.services.schedule;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+// Working hours, time off and booked intervals of a single barber, plus a cache
+// of the resulting free-slot bitmap per day. Not thread-safe: callers lock the instance.
+class BarberSchedule {
+    
+    private static final int MAX_CACHED_DAYS = 400;
+    
+    private final Map<Long, WorkingRange> workingHours = new HashMap<>();
+    private final Map<String, Interval> busy = new HashMap<>();
+    private final Map<LocalDate, Map<String, Interval>> busyByDay = new HashMap<>();
+    private final Map<LocalDate, SlotBitmap> freeByDay = new HashMap<>();
+    
+    // Working hours
+    void putWorkingHours(long id, DayOfWeek dayOfWeek, LocalTime start, LocalTime end) {
+        WorkingRange previous = workingHours.put(id, new WorkingRange(dayOfWeek, start, end));
+        if (previous != null) {
+            invalidate(previous.dayOfWeek);
+        }
+        invalidate(dayOfWeek);
+    }
+    
+    void removeWorkingHours(long id) {
+        WorkingRange previous = workingHours.remove(id);
+        if (previous != null) {
+            invalidate(previous.dayOfWeek);
+        }
+    }
+    
+    List<WorkingRange> workingHoursOn(DayOfWeek dayOfWeek) {
+        List<WorkingRange> ranges = new ArrayList<>();
+        for (WorkingRange range : workingHours.values()) {
+            if (range.dayOfWeek == dayOfWeek) {
+                ranges.add(range);
+            }
+        }
+        return ranges;
+    }
+    
+    // Busy intervals (appointments and time off), keyed so they can be replaced or removed
+    void putBusy(String key, LocalDateTime start, LocalDateTime end) {
+        removeBusy(key);
+        if (!end.isAfter(start)) {
+            return;
+        }
+        Interval interval = new Interval(start, end);
+        busy.put(key, interval);
+        for (LocalDate day = start.toLocalDate(); day.atStartOfDay().isBefore(end); day = day.plusDays(1)) {
+            busyByDay.computeIfAbsent(day, d -> new HashMap<>()).put(key, interval);
+            // Adding only ever takes slots away, so cached days are patched in place
+            SlotBitmap cached = freeByDay.get(day);
+            if (cached != null) {
+                clearInterval(cached, day, interval);
+            }
+        }
+    }
+    
+    void removeBusy(String key) {
+        Interval previous = busy.remove(key);
+        if (previous == null) {
+            return;
+        }
+        for (LocalDate day = previous.start.toLocalDate(); day.atStartOfDay().isBefore(previous.end); day = day.plusDays(1)) {
+            Map<String, Interval> intervals = busyByDay.get(day);
+            if (intervals != null) {
+                intervals.remove(key);
+                if (intervals.isEmpty()) {
+                    busyByDay.remove(day);
+                }
+            }
+            // Freed slots may still be covered by another interval, so the day is rebuilt
+            freeByDay.remove(day);
+        }
+    }
+    
+    // Drop busy intervals that ended by the start of the given day, and the days before it; returns the dropped keys
+    List<String> evictBefore(LocalDate day) {
+        LocalDateTime cutoff = day.atStartOfDay();
+        List<String> evicted = new ArrayList<>();
+        Iterator<Map.Entry<String, Interval>> entries = busy.entrySet().iterator();
+        while (entries.hasNext()) {
+            Map.Entry<String, Interval> entry = entries.next();
+            if (!entry.getValue().end.isAfter(cutoff)) {
+                evicted.add(entry.getKey());
+                entries.remove();
+            }
+        }
+        busyByDay.keySet().removeIf(cached -> cached.isBefore(day));
+        freeByDay.keySet().removeIf(cached -> cached.isBefore(day));
+        return evicted;
+    }
+    
+    // Free slots of a day; the returned bitmap is shared and must not be modified
+    SlotBitmap freeSlots(LocalDate day) {
+        SlotBitmap cached = freeByDay.get(day);
+        if (cached != null) {
+            return cached;
+        }
+        SlotBitmap free = new SlotBitmap();
+        for (WorkingRange range : workingHoursOn(day.getDayOfWeek())) {
+            free.set(SlotBitmap.slotCeil(range.start), endSlot(range.end));
+        }
+        Map<String, Interval> intervals = busyByDay.get(day);
+        if (intervals != null) {
+            for (Interval interval : intervals.values()) {
+                clearInterval(free, day, interval);
+            }
+        }
+        if (freeByDay.size() >= MAX_CACHED_DAYS) {
+            evictPastDays();
+        }
+        freeByDay.put(day, free);
+        return free;
+    }
+    
+    private void evictPastDays() {
+        LocalDate today = LocalDate.now();
+        Iterator<LocalDate> days = freeByDay.keySet().iterator();
+        while (days.hasNext()) {
+            if (days.next().isBefore(today)) {
+                days.remove();
+            }
+        }
+        if (freeByDay.size() >= MAX_CACHED_DAYS) {
+            freeByDay.clear();
+        }
+    }
+    
+    private void invalidate(DayOfWeek dayOfWeek) {
+        freeByDay.keySet().removeIf(day -> day.getDayOfWeek() == dayOfWeek);
+    }
+    
+    private static void clearInterval(SlotBitmap bitmap, LocalDate day, Interval interval) {
+        LocalDateTime dayStart = day.atStartOfDay();
+        LocalDateTime dayEnd = dayStart.plusDays(1);
+        int from = interval.start.isAfter(dayStart) ? SlotBitmap.slotOf(interval.start.toLocalTime()) : 0;
+        int to = interval.end.isBefore(dayEnd) ? SlotBitmap.slotCeil(interval.end.toLocalTime()) : SlotBitmap.SLOTS_PER_DAY;
+        bitmap.clear(from, to);
+    }
+    
+    // LocalTime.MIDNIGHT as an end time means "until the end of the day"
+    private static int endSlot(LocalTime end) {
+        return end.equals(LocalTime.MIDNIGHT) ? SlotBitmap.SLOTS_PER_DAY : SlotBitmap.slotOf(end);
+    }
+    
+    static final class WorkingRange {
+        final DayOfWeek dayOfWeek;
+        final LocalTime start;
+        final LocalTime end;
+        
+        WorkingRange(DayOfWeek dayOfWeek, LocalTime start, LocalTime end) {
+            this.dayOfWeek = dayOfWeek;
+            this.start = start;
+            this.end = end;
+        }
+    }
+    
+    static final class Interval {
+        final LocalDateTime start;
+        final LocalDateTime end;
+        
+        Interval(LocalDateTime start, LocalDateTime end) {
+            this.start = start;
+            this.end = end;
+        }
+    }
+}
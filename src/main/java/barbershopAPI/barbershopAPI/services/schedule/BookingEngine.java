@@ -0,0 +1,129 @@
+package barbershopAPI.barbershopAPI.services.schedule;
+
+import barbershopAPI.barbershopAPI.dto.CalendarView;
+import barbershopAPI.barbershopAPI.services.events.EntityChange;
+import barbershopAPI.barbershopAPI.services.events.EntityChangePublisher;
+import barbershopAPI.barbershopAPI.services.reminders.ReminderScheduler;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Objects;
+import java.util.UUID;
+import java.util.concurrent.locks.ReentrantLock;
+
+// Conflict-checked appointment creation.
+// Bookings for the same barber and day are serialized by one of a fixed set of striped locks;
+// inside the lock the slot is checked against the in-memory schedule (working hours, time off,
+// existing bookings plus service buffer), inserted and committed, and the in-memory indexes updated,
+// so the next booking for that barber and day already sees it. Other barbers and days book in parallel.
+// The appointments_no_overlap exclusion constraint (V9) catches what the locks cannot see,
+// such as a booking made on another node.
+@Service
+public class BookingEngine {
+    
+    private static final String EXCLUSION_VIOLATION = "23P01";
+    private static final String BOOKED_STATUS = "CONFIRMED";
+    
+    @Autowired
+    private AvailabilityEngine availabilityEngine;
+    
+    @Autowired
+    private CalendarIndex calendarIndex;
+    
+    @Autowired
+    private ReminderScheduler reminderScheduler;
+    
+    @Autowired
+    private EntityChangePublisher entityChangePublisher;
+    
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+    
+    @Value("${app.booking.lock-stripes:64}")
+    private int lockStripes;
+    
+    private ReentrantLock[] stripes;
+    private TransactionTemplate transactionTemplate;
+    
+    @PostConstruct
+    void init() {
+        stripes = new ReentrantLock[Math.max(1, lockStripes)];
+        for (int i = 0; i < stripes.length; i++) {
+            stripes[i] = new ReentrantLock();
+        }
+        // Always its own transaction, so the insert is committed before the stripe is released
+        transactionTemplate = new TransactionTemplate(transactionManager);
+        transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+    
+    public CalendarView.Appointment book(long barberId, Long serviceId, Long clientId,
+                                         LocalDateTime startsAt, LocalDateTime endsAt, String notes) {
+        if (!endsAt.isAfter(startsAt) || endsAt.isAfter(startsAt.toLocalDate().plusDays(1).atStartOfDay())) {
+            throw new BookingException(BookingException.Reason.INVALID_RANGE, "Appointment must end after it starts, on the same day");
+        }
+        if (!availabilityEngine.isLoaded()) {
+            throw new BookingException(BookingException.Reason.SCHEDULE_NOT_LOADED, "Schedule is still loading");
+        }
+        int bufferAfterMin = availabilityEngine.bufferAfterMin(serviceId);
+        
+        ReentrantLock lock = stripeFor(barberId, startsAt.toLocalDate());
+        lock.lock();
+        try {
+            if (!availabilityEngine.isFree(barberId, startsAt, endsAt.plusMinutes(bufferAfterMin))) {
+                throw new BookingException(BookingException.Reason.SLOT_UNAVAILABLE, "Barber is not available at " + startsAt);
+            }
+            UUID id = UUID.randomUUID();
+            try {
+                transactionTemplate.executeWithoutResult(status -> {
+                    jdbcTemplate.update(
+                        "INSERT INTO appointments (id, barber_id, service_id, client_id, starts_at, ends_at, status, notes) " +
+                        "VALUES (?, ?, ?, ?, ?, ?, ?, ?)",
+                        id, barberId, serviceId, clientId, Timestamp.valueOf(startsAt), Timestamp.valueOf(endsAt), BOOKED_STATUS, notes);
+                    // Other nodes update their indexes from this
+                    entityChangePublisher.publish(EntityChange.Kind.APPOINTMENT, id);
+                });
+            } catch (DataIntegrityViolationException e) {
+                if (isExclusionViolation(e)) {
+                    throw new BookingException(BookingException.Reason.SLOT_UNAVAILABLE, "Overlaps an appointment booked elsewhere");
+                }
+                throw e;
+            }
+            
+            CalendarView.Appointment appointment = new CalendarView.Appointment(
+                id.toString(), barberId, serviceId, clientId, startsAt, endsAt, BOOKED_STATUS, notes);
+            availabilityEngine.putAppointment(appointment.getId(), barberId, startsAt, endsAt, bufferAfterMin);
+            calendarIndex.putAppointment(appointment);
+            reminderScheduler.schedule(appointment.getId(), clientId, startsAt);
+            return appointment;
+        } finally {
+            lock.unlock();
+        }
+    }
+    
+    private ReentrantLock stripeFor(long barberId, LocalDate day) {
+        return stripes[Math.floorMod(Objects.hash(barberId, day.toEpochDay()), stripes.length)];
+    }
+    
+    private static boolean isExclusionViolation(Throwable e) {
+        for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+            if (cause instanceof SQLException sql && EXCLUSION_VIOLATION.equals(sql.getSQLState())) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
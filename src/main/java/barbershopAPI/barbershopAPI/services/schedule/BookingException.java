@@ -0,0 +1,24 @@
+package barbershopAPI.barbershopAPI.services.schedule;
+
+public class BookingException extends RuntimeException {
+    
+    public enum Reason {
+        // End not after start, or the booking crosses midnight
+        INVALID_RANGE,
+        // The in-memory schedule has not been loaded yet
+        SCHEDULE_NOT_LOADED,
+        // Outside working hours, during time off, or overlapping another booking
+        SLOT_UNAVAILABLE
+    }
+    
+    private final Reason reason;
+    
+    public BookingException(Reason reason, String message) {
+        super(message);
+        this.reason = reason;
+    }
+    
+    public Reason getReason() {
+        return reason;
+    }
+}
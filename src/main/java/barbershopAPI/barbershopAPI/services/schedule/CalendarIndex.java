@@ -0,0 +1,181 @@
+package barbershopAPI.barbershopAPI.services.schedule;
+
+import barbershopAPI.barbershopAPI.dto.CalendarView;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+
+// In-memory calendar per barber: appointments and time off in interval indexes (O(log n) per write,
+// so startup loads and bulk imports stay O(n log n)), plus the weekly working hours.
+// Range queries for many barbers run without locks or database round trips.
+// Intervals that ended before the covered range are evicted (CalendarService does it nightly).
+@Service
+public class CalendarIndex {
+    
+    private static final Comparator<CalendarView.WorkingHours> WEEKLY_ORDER =
+        Comparator.comparingInt(CalendarView.WorkingHours::getDayOfWeek).thenComparing(CalendarView.WorkingHours::getStartTime);
+    
+    private final Map<Long, BarberCalendar> calendars = new ConcurrentHashMap<>();
+    private final Map<String, Long> appointmentOwners = new ConcurrentHashMap<>();
+    private final Map<Long, Long> timeOffOwners = new ConcurrentHashMap<>();
+    private final Map<Long, Long> workingHoursOwners = new ConcurrentHashMap<>();
+    
+    // Earliest instant the index holds complete data for; null until loaded
+    private volatile LocalDateTime coveredFrom;
+    
+    // Appointment hooks (create, reschedule and status changes all go through putAppointment)
+    public void putAppointment(CalendarView.Appointment appointment) {
+        Long previousBarber = appointmentOwners.put(appointment.getId(), appointment.getBarberId());
+        if (previousBarber != null && previousBarber != appointment.getBarberId()) {
+            update(previousBarber, calendar -> calendar.appointments.remove(appointment.getId()));
+        }
+        update(appointment.getBarberId(), calendar -> calendar.appointments.put(
+            appointment.getId(), key(appointment.getStartsAt()), key(appointment.getEndsAt()), appointment));
+    }
+    
+    public void removeAppointment(String id) {
+        Long barberId = appointmentOwners.remove(id);
+        if (barberId != null) {
+            update(barberId, calendar -> calendar.appointments.remove(id));
+        }
+    }
+    
+    // Time off hooks
+    public void putTimeOff(CalendarView.TimeOff timeOff) {
+        String id = String.valueOf(timeOff.getId());
+        Long previousBarber = timeOffOwners.put(timeOff.getId(), timeOff.getBarberId());
+        if (previousBarber != null && previousBarber != timeOff.getBarberId()) {
+            update(previousBarber, calendar -> calendar.timeOff.remove(id));
+        }
+        update(timeOff.getBarberId(), calendar -> calendar.timeOff.put(
+            id, key(timeOff.getStartsAt()), key(timeOff.getEndsAt()), timeOff));
+    }
+    
+    public void removeTimeOff(long id) {
+        Long barberId = timeOffOwners.remove(id);
+        if (barberId != null) {
+            update(barberId, calendar -> calendar.timeOff.remove(String.valueOf(id)));
+        }
+    }
+    
+    // Working hours hooks
+    public void putWorkingHours(CalendarView.WorkingHours workingHours) {
+        Long previousBarber = workingHoursOwners.put(workingHours.getId(), workingHours.getBarberId());
+        if (previousBarber != null && previousBarber != workingHours.getBarberId()) {
+            update(previousBarber, calendar -> calendar.removeWorkingHours(workingHours.getId()));
+        }
+        update(workingHours.getBarberId(), calendar -> calendar.putWorkingHours(workingHours));
+    }
+    
+    public void removeWorkingHours(long id) {
+        Long barberId = workingHoursOwners.remove(id);
+        if (barberId != null) {
+            update(barberId, calendar -> calendar.removeWorkingHours(id));
+        }
+    }
+    
+    // Whether ranges starting at from can be answered from memory
+    public boolean covers(LocalDateTime from) {
+        LocalDateTime covered = coveredFrom;
+        return covered != null && !from.isBefore(covered);
+    }
+    
+    // Appointments and time off overlapping [from, to) plus working hours, per barber.
+    // A null barberIds means every barber the index knows.
+    public CalendarView getCalendar(Collection<Long> barberIds, LocalDateTime from, LocalDateTime to) {
+        long fromKey = key(from);
+        long toKey = key(to);
+        CalendarView view = new CalendarView(from, to);
+        for (Long barberId : barberIds != null ? barberIds : calendars.keySet()) {
+            CalendarView.BarberCalendar calendar = new CalendarView.BarberCalendar();
+            BarberCalendar indexed = calendars.get(barberId);
+            if (indexed != null) {
+                indexed.appointments.overlapping(fromKey, toKey, calendar.getAppointments());
+                indexed.timeOff.overlapping(fromKey, toKey, calendar.getTimeOff());
+                calendar.getWorkingHours().addAll(indexed.workingHours.values());
+                calendar.getWorkingHours().sort(WEEKLY_ORDER);
+            }
+            view.getBarbers().put(barberId, calendar);
+        }
+        return view;
+    }
+    
+    void markLoaded(LocalDateTime coveredFrom) {
+        this.coveredFrom = coveredFrom;
+    }
+    
+    // Forgets appointments and time off that ended by the cutoff. Coverage moves up first, so ranges
+    // starting before the cutoff go to the database instead of seeing a half-evicted index.
+    void evictBefore(LocalDateTime cutoff) {
+        LocalDateTime covered = coveredFrom;
+        if (covered == null) {
+            return;
+        }
+        if (cutoff.isAfter(covered)) {
+            coveredFrom = cutoff;
+        }
+        long cutoffKey = key(cutoff);
+        for (Long barberId : calendars.keySet()) {
+            update(barberId, calendar -> {
+                calendar.appointments.removeEndedBy(cutoffKey).forEach(id -> appointmentOwners.remove(id, barberId));
+                calendar.timeOff.removeEndedBy(cutoffKey).forEach(id -> timeOffOwners.remove(Long.parseLong(id), barberId));
+            });
+        }
+    }
+    
+    // Ids currently held, for reconciling after a reload (CalendarService)
+    Set<String> appointmentIds() {
+        return new HashSet<>(appointmentOwners.keySet());
+    }
+    
+    Set<Long> timeOffIds() {
+        return new HashSet<>(timeOffOwners.keySet());
+    }
+    
+    Set<Long> workingHoursIds() {
+        return new HashSet<>(workingHoursOwners.keySet());
+    }
+    
+    // Writes to one barber are serialized by the map's per-key compute
+    private void update(long barberId, Consumer<BarberCalendar> change) {
+        calendars.compute(barberId, (id, current) -> {
+            BarberCalendar calendar = current != null ? current : new BarberCalendar();
+            change.accept(calendar);
+            return calendar;
+        });
+    }
+    
+    // Epoch seconds (zone-free) keep the interval arrays primitive
+    private static long key(LocalDateTime dateTime) {
+        return dateTime.toEpochSecond(ZoneOffset.UTC);
+    }
+    
+    private static final class BarberCalendar {
+        
+        final IntervalIndex<CalendarView.Appointment> appointments = new IntervalIndex<>();
+        final IntervalIndex<CalendarView.TimeOff> timeOff = new IntervalIndex<>();
+        // Copy-on-write: a handful of entries, replaced whole so readers never see a map being changed
+        volatile Map<Long, CalendarView.WorkingHours> workingHours = Map.of();
+        
+        void putWorkingHours(CalendarView.WorkingHours hours) {
+            Map<Long, CalendarView.WorkingHours> copy = new HashMap<>(workingHours);
+            copy.put(hours.getId(), hours);
+            workingHours = copy;
+        }
+        
+        void removeWorkingHours(long id) {
+            Map<Long, CalendarView.WorkingHours> copy = new HashMap<>(workingHours);
+            copy.remove(id);
+            workingHours = copy;
+        }
+    }
+}
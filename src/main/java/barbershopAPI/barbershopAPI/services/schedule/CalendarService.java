@@ -0,0 +1,228 @@
+package barbershopAPI.barbershopAPI.services.schedule;
+
+import barbershopAPI.barbershopAPI.dto.CalendarView;
+import barbershopAPI.barbershopAPI.services.events.EntityChange;
+import barbershopAPI.barbershopAPI.services.events.EntityChangeListener;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.Set;
+import java.util.UUID;
+import java.util.function.Consumer;
+
+// Calendar data for GET /api/calendar. Served from the CalendarIndex, which is filled
+// at startup with the last app.calendar.history-days days onwards; older ranges are
+// read from the database with one query per table. Entity change events from every node
+// reread the changed row into the index; days that fall out of the window are evicted nightly.
+@Service
+public class CalendarService implements EntityChangeListener {
+    
+    private static final Logger log = LoggerFactory.getLogger(CalendarService.class);
+    
+    @Autowired
+    private NamedParameterJdbcTemplate jdbcTemplate;
+    
+    @Autowired
+    private CalendarIndex calendarIndex;
+    
+    @Value("${app.calendar.history-days:90}")
+    private int historyDays;
+    
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        LocalDateTime since = coveredFrom();
+        reload(since);
+        calendarIndex.markLoaded(since);
+        log.info("Calendar index loaded from {}", since.toLocalDate());
+    }
+    
+    @Override
+    public void onEntityChange(EntityChange change) {
+        switch (change.getKind()) {
+            case APPOINTMENT -> {
+                MapSqlParameterSource params = new MapSqlParameterSource("id", UUID.fromString(change.getId()));
+                if (queryAppointments(" WHERE id = :id", params, calendarIndex::putAppointment) == 0) {
+                    calendarIndex.removeAppointment(change.getId());
+                }
+            }
+            case TIME_OFF -> {
+                MapSqlParameterSource params = new MapSqlParameterSource("id", change.getLongId());
+                if (queryTimeOff(" WHERE id = :id", params, calendarIndex::putTimeOff) == 0) {
+                    calendarIndex.removeTimeOff(change.getLongId());
+                }
+            }
+            case WORKING_HOURS -> {
+                MapSqlParameterSource params = new MapSqlParameterSource("id", change.getLongId());
+                if (queryWorkingHours(" WHERE id = :id", params, calendarIndex::putWorkingHours) == 0) {
+                    calendarIndex.removeWorkingHours(change.getLongId());
+                }
+            }
+            case RESYNC -> reload(coveredFrom());
+            default -> {
+            }
+        }
+    }
+    
+    @Scheduled(cron = "${app.calendar.evict-cron:0 10 0 * * *}")
+    public void evictOldDays() {
+        calendarIndex.evictBefore(coveredFrom());
+    }
+    
+    // Appointments and time off overlapping [from, to) plus working hours, per barber (null = all barbers)
+    public CalendarView getCalendar(Collection<Long> barberIds, LocalDateTime from, LocalDateTime to) {
+        if (calendarIndex.covers(from)) {
+            return calendarIndex.getCalendar(barberIds, from, to);
+        }
+        CalendarView view = new CalendarView(from, to);
+        if (barberIds != null) {
+            if (barberIds.isEmpty()) {
+                return view;
+            }
+            barberIds.forEach(barberId -> view.getBarbers().put(barberId, new CalendarView.BarberCalendar()));
+        }
+        queryAppointments(barberIds, from, to, appointment -> calendarOf(view, appointment.getBarberId()).getAppointments().add(appointment));
+        queryTimeOff(barberIds, from, to, timeOff -> calendarOf(view, timeOff.getBarberId()).getTimeOff().add(timeOff));
+        queryWorkingHours(barberIds, hours -> calendarOf(view, hours.getBarberId()).getWorkingHours().add(hours));
+        return view;
+    }
+    
+    private static CalendarView.BarberCalendar calendarOf(CalendarView view, long barberId) {
+        return view.getBarbers().computeIfAbsent(barberId, id -> new CalendarView.BarberCalendar());
+    }
+    
+    // Rereads the covered range. Ids taken before the reread and not found by it were deleted
+    // meanwhile; ids added after it started are left alone, their own events refresh them.
+    private void reload(LocalDateTime since) {
+        Set<String> appointments = calendarIndex.appointmentIds();
+        queryAppointments(null, since, null, appointment -> {
+            calendarIndex.putAppointment(appointment);
+            appointments.remove(appointment.getId());
+        });
+        appointments.forEach(calendarIndex::removeAppointment);
+        
+        Set<Long> timeOff = calendarIndex.timeOffIds();
+        queryTimeOff(null, since, null, entry -> {
+            calendarIndex.putTimeOff(entry);
+            timeOff.remove(entry.getId());
+        });
+        timeOff.forEach(calendarIndex::removeTimeOff);
+        
+        Set<Long> workingHours = calendarIndex.workingHoursIds();
+        queryWorkingHours(null, hours -> {
+            calendarIndex.putWorkingHours(hours);
+            workingHours.remove(hours.getId());
+        });
+        workingHours.forEach(calendarIndex::removeWorkingHours);
+    }
+    
+    private LocalDateTime coveredFrom() {
+        return LocalDate.now().minusDays(historyDays).atStartOfDay();
+    }
+    
+    private void queryAppointments(Collection<Long> barberIds, LocalDateTime from, LocalDateTime to,
+                                   Consumer<CalendarView.Appointment> sink) {
+        MapSqlParameterSource params = new MapSqlParameterSource();
+        queryAppointments(where(params, barberIds, from, to), params, sink);
+    }
+    
+    // Each query method returns the number of rows passed to the sink
+    private int queryAppointments(String where, MapSqlParameterSource params, Consumer<CalendarView.Appointment> sink) {
+        String sql = "SELECT id, barber_id, service_id, client_id, starts_at, ends_at, status, notes FROM appointments" +
+            where + " ORDER BY starts_at";
+        int[] rows = {0};
+        jdbcTemplate.query(sql, params, rs -> {
+            sink.accept(new CalendarView.Appointment(
+                rs.getString("id"),
+                rs.getLong("barber_id"),
+                nullableLong(rs, "service_id"),
+                nullableLong(rs, "client_id"),
+                rs.getTimestamp("starts_at").toLocalDateTime(),
+                rs.getTimestamp("ends_at").toLocalDateTime(),
+                rs.getString("status"),
+                rs.getString("notes")
+            ));
+            rows[0]++;
+        });
+        return rows[0];
+    }
+    
+    private void queryTimeOff(Collection<Long> barberIds, LocalDateTime from, LocalDateTime to,
+                              Consumer<CalendarView.TimeOff> sink) {
+        MapSqlParameterSource params = new MapSqlParameterSource();
+        queryTimeOff(where(params, barberIds, from, to), params, sink);
+    }
+    
+    private int queryTimeOff(String where, MapSqlParameterSource params, Consumer<CalendarView.TimeOff> sink) {
+        String sql = "SELECT id, barber_id, starts_at, ends_at, reason FROM time_off" + where + " ORDER BY starts_at";
+        int[] rows = {0};
+        jdbcTemplate.query(sql, params, rs -> {
+            sink.accept(new CalendarView.TimeOff(
+                rs.getLong("id"),
+                rs.getLong("barber_id"),
+                rs.getTimestamp("starts_at").toLocalDateTime(),
+                rs.getTimestamp("ends_at").toLocalDateTime(),
+                rs.getString("reason")
+            ));
+            rows[0]++;
+        });
+        return rows[0];
+    }
+    
+    private void queryWorkingHours(Collection<Long> barberIds, Consumer<CalendarView.WorkingHours> sink) {
+        MapSqlParameterSource params = new MapSqlParameterSource();
+        queryWorkingHours(where(params, barberIds, null, null), params, sink);
+    }
+    
+    private int queryWorkingHours(String where, MapSqlParameterSource params, Consumer<CalendarView.WorkingHours> sink) {
+        String sql = "SELECT id, barber_id, day_of_week, start_time, end_time FROM working_hours" +
+            where + " ORDER BY day_of_week, start_time";
+        int[] rows = {0};
+        jdbcTemplate.query(sql, params, rs -> {
+            sink.accept(new CalendarView.WorkingHours(
+                rs.getLong("id"),
+                rs.getLong("barber_id"),
+                rs.getInt("day_of_week"),
+                rs.getTime("start_time").toLocalTime(),
+                rs.getTime("end_time").toLocalTime()
+            ));
+            rows[0]++;
+        });
+        return rows[0];
+    }
+    
+    // Overlap with [from, to) and barber filter; null arguments leave that condition out
+    private static String where(MapSqlParameterSource params, Collection<Long> barberIds, LocalDateTime from, LocalDateTime to) {
+        StringBuilder where = new StringBuilder(" WHERE 1 = 1");
+        if (barberIds != null) {
+            where.append(" AND barber_id IN (:barberIds)");
+            params.addValue("barberIds", barberIds);
+        }
+        if (from != null) {
+            where.append(" AND ends_at > :from");
+            params.addValue("from", from);
+        }
+        if (to != null) {
+            where.append(" AND starts_at < :to");
+            params.addValue("to", to);
+        }
+        return where.toString();
+    }
+    
+    private static Long nullableLong(ResultSet rs, String column) throws SQLException {
+        long value = rs.getLong(column);
+        return rs.wasNull() ? null : value;
+    }
+}
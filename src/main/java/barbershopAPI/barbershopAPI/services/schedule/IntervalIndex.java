@@ -0,0 +1,80 @@
+package barbershopAPI.barbershopAPI.services.schedule;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+// Keyed intervals ordered by start, for range lookups: a skip list by (start, key) plus a key -> start map,
+// so put and remove are O(log n) and a bulk load of n intervals is O(n log n). Readers never lock and see
+// writes as they land; writers must be serialized by the caller (CalendarIndex writes one barber at a time).
+// An interval [start, end) overlaps [from, to) when start < to and end > from. Since no interval
+// is longer than maxLength, only those starting after from - maxLength can overlap, which bounds the scan.
+// maxLength only grows, so it stays a valid bound after removals.
+final class IntervalIndex<T> {
+    
+    private static final Comparator<Slot> ORDER = Comparator.comparingLong(Slot::start).thenComparing(Slot::key);
+    
+    private final ConcurrentSkipListMap<Slot, Interval<T>> byStart = new ConcurrentSkipListMap<>(ORDER);
+    private final Map<String, Slot> slots = new ConcurrentHashMap<>();
+    private volatile long maxLength;
+    
+    int size() {
+        return slots.size();
+    }
+    
+    // Adds the interval for key, or moves it if the key is already present. The old slot goes first:
+    // a reader may briefly miss a moved interval but never sees it twice.
+    void put(String key, long start, long end, T item) {
+        Slot slot = new Slot(start, key);
+        maxLength = Math.max(maxLength, end - start);
+        Slot previous = slots.put(key, slot);
+        if (previous != null && !previous.equals(slot)) {
+            byStart.remove(previous);
+        }
+        byStart.put(slot, new Interval<>(end, item));
+    }
+    
+    void remove(String key) {
+        Slot slot = slots.remove(key);
+        if (slot != null) {
+            byStart.remove(slot);
+        }
+    }
+    
+    // Add the items overlapping [from, to) to out, in start order
+    void overlapping(long from, long to, List<? super T> out) {
+        long lowest = from - maxLength;
+        if (lowest >= to) {
+            return;
+        }
+        for (Interval<T> interval : byStart.subMap(new Slot(lowest, ""), true, new Slot(to, ""), false).values()) {
+            if (interval.end() > from) {
+                out.add(interval.item());
+            }
+        }
+    }
+    
+    // Drops the intervals that ended at or before cutoff; returns their keys
+    List<String> removeEndedBy(long cutoff) {
+        List<String> removed = new ArrayList<>();
+        for (Map.Entry<Slot, Interval<T>> entry : byStart.headMap(new Slot(cutoff, ""), false).entrySet()) {
+            if (entry.getValue().end() <= cutoff) {
+                Slot slot = entry.getKey();
+                byStart.remove(slot);
+                slots.remove(slot.key(), slot);
+                removed.add(slot.key());
+            }
+        }
+        return removed;
+    }
+    
+    // "" sorts before every key, so (start, "") bounds all intervals with that start
+    private record Slot(long start, String key) {
+    }
+    
+    private record Interval<T>(long end, T item) {
+    }
+}
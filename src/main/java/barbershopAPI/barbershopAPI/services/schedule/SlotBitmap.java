@@ -0,0 +1,149 @@
+package barbershopAPI.barbershopAPI.services.schedule;
+
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+
+// One bit per 5-minute slot of a single day (288 slots packed into 5 longs).
+// A set bit means the slot is free.
+public final class SlotBitmap {
+    
+    public static final int SLOT_MINUTES = 5;
+    public static final int SLOTS_PER_DAY = 24 * 60 / SLOT_MINUTES;
+    private static final int WORDS = (SLOTS_PER_DAY + 63) / 64;
+    
+    private final long[] words;
+    
+    public SlotBitmap() {
+        this.words = new long[WORDS];
+    }
+    
+    private SlotBitmap(long[] words) {
+        this.words = words;
+    }
+    
+    // Slot index of a time of day, rounded down to the slot grid
+    public static int slotOf(LocalTime time) {
+        return (time.getHour() * 60 + time.getMinute()) / SLOT_MINUTES;
+    }
+    
+    // Slot index of a time of day, rounded up to the slot grid
+    public static int slotCeil(LocalTime time) {
+        int minutes = time.getHour() * 60 + time.getMinute() + (time.getSecond() > 0 || time.getNano() > 0 ? 1 : 0);
+        return (minutes + SLOT_MINUTES - 1) / SLOT_MINUTES;
+    }
+    
+    // Number of slots needed to hold the given amount of minutes
+    public static int slotsFor(int minutes) {
+        return Math.max(1, (minutes + SLOT_MINUTES - 1) / SLOT_MINUTES);
+    }
+    
+    public static LocalTime timeOf(int slot) {
+        return LocalTime.of(0, 0).plusMinutes((long) slot * SLOT_MINUTES);
+    }
+    
+    // Set slots [from, to)
+    public void set(int from, int to) {
+        apply(from, to, true);
+    }
+    
+    // Clear slots [from, to)
+    public void clear(int from, int to) {
+        apply(from, to, false);
+    }
+    
+    // Whether every slot in [from, to) is set; false for ranges outside the day
+    public boolean allSet(int from, int to) {
+        if (from < 0 || to > SLOTS_PER_DAY || from >= to) {
+            return false;
+        }
+        for (int slot = from; slot < to; ) {
+            int w = slot >>> 6;
+            int end = Math.min(to, (w + 1) << 6);
+            long mask = -1L << (slot & 63);
+            if ((end & 63) != 0) {
+                mask &= -1L >>> (64 - (end & 63));
+            }
+            if ((words[w] & mask) != mask) {
+                return false;
+            }
+            slot = end;
+        }
+        return true;
+    }
+    
+    private void apply(int from, int to, boolean value) {
+        from = Math.max(0, from);
+        to = Math.min(SLOTS_PER_DAY, to);
+        if (from >= to) {
+            return;
+        }
+        int firstWord = from >>> 6;
+        int lastWord = (to - 1) >>> 6;
+        for (int w = firstWord; w <= lastWord; w++) {
+            long mask = -1L;
+            if (w == firstWord) {
+                mask &= -1L << (from & 63);
+            }
+            if (w == lastWord) {
+                mask &= -1L >>> (63 - ((to - 1) & 63));
+            }
+            if (value) {
+                words[w] |= mask;
+            } else {
+                words[w] &= ~mask;
+            }
+        }
+    }
+    
+    // Bits of the result mark the slots where `length` consecutive free slots start.
+    // Uses shift-and doubling, so a run of k slots costs O(log k) word passes.
+    public SlotBitmap runStarts(int length) {
+        long[] result = words.clone();
+        int covered = 1;
+        while (covered < length) {
+            int shift = Math.min(covered, length - covered);
+            long[] shifted = shiftDown(result, shift);
+            for (int w = 0; w < WORDS; w++) {
+                result[w] &= shifted[w];
+            }
+            covered += shift;
+        }
+        return new SlotBitmap(result);
+    }
+    
+    // result[i] = bits[i + shift]; bits past the end of the day read as zero
+    private static long[] shiftDown(long[] bits, int shift) {
+        long[] out = new long[WORDS];
+        int wordShift = shift >>> 6;
+        int bitShift = shift & 63;
+        for (int w = 0; w < WORDS; w++) {
+            int src = w + wordShift;
+            if (src >= WORDS) {
+                break;
+            }
+            long value = bits[src] >>> bitShift;
+            if (bitShift != 0 && src + 1 < WORDS) {
+                value |= bits[src + 1] << (64 - bitShift);
+            }
+            out[w] = value;
+        }
+        return out;
+    }
+    
+    // Indexes of set bits that fall on the given step (in slots), in ascending order
+    public List<Integer> setSlots(int stepSlots) {
+        List<Integer> slots = new ArrayList<>();
+        for (int w = 0; w < WORDS; w++) {
+            long word = words[w];
+            while (word != 0) {
+                int slot = (w << 6) + Long.numberOfTrailingZeros(word);
+                if (slot % stepSlots == 0) {
+                    slots.add(slot);
+                }
+                word &= word - 1;
+            }
+        }
+        return slots;
+    }
+}
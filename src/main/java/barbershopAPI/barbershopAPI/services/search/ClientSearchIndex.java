@@ -0,0 +1,196 @@
+package barbershopAPI.barbershopAPI.services.search;
+
+import barbershopAPI.barbershopAPI.dto.ClientMatch;
+import org.springframework.stereotype.Service;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentNavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.function.Predicate;
+import java.util.regex.Pattern;
+
+// In-memory prefix index over client names and phone numbers.
+// Every name word and the phone digits are stored as sorted keys ("<term>\0<id>"), so a
+// prefix lookup is one skip-list seek plus a scan over the matching keys only.
+// Matching ignores case and accents ("joao" finds "João"); every query word must prefix
+// some word of the name, and a query of digits matches the phone.
+@Service
+public class ClientSearchIndex {
+    
+    private static final Pattern MARKS = Pattern.compile("\\p{M}+");
+    private static final Pattern NON_DIGITS = Pattern.compile("\\D+");
+    private static final char SEPARATOR = '\0';
+    // Phones are also indexed by their national part, so "912" finds "+351 912 345 678"
+    static final int NATIONAL_DIGITS = 9;
+    
+    private final ConcurrentSkipListMap<String, Long> terms = new ConcurrentSkipListMap<>();
+    private final Map<Long, IndexedClient> clients = new ConcurrentHashMap<>();
+    
+    private volatile boolean loaded = false;
+    
+    // Client hooks: call after create/update (putClient) and delete (removeClient)
+    public void putClient(long id, String name, String phone) {
+        IndexedClient client = new IndexedClient(new ClientMatch(id, name, phone), words(name), phoneTerms(phone));
+        synchronized (this) {
+            IndexedClient previous = clients.put(id, client);
+            if (previous != null) {
+                removeTerms(previous);
+            }
+            addTerms(client);
+        }
+    }
+    
+    public void removeClient(long id) {
+        synchronized (this) {
+            IndexedClient previous = clients.remove(id);
+            if (previous != null) {
+                removeTerms(previous);
+            }
+        }
+    }
+    
+    // Up to limit clients matching the query, ordered by the matched term
+    public List<ClientMatch> search(String query, int limit) {
+        List<String> queryWords = words(query);
+        String digits = NON_DIGITS.matcher(query).replaceAll("");
+        if (isPhoneQuery(queryWords, digits)) {
+            return collect(digits, client -> true, limit);
+        }
+        if (queryWords.isEmpty()) {
+            return new ArrayList<>();
+        }
+        // Scan on the longest (most selective) word, check the others per candidate
+        String scanWord = queryWords.get(0);
+        for (String word : queryWords) {
+            if (word.length() > scanWord.length()) {
+                scanWord = word;
+            }
+        }
+        return collect(scanWord, client -> client.matchesAll(queryWords), limit);
+    }
+    
+    public int size() {
+        return clients.size();
+    }
+    
+    public boolean isLoaded() {
+        return loaded;
+    }
+    
+    void markLoaded() {
+        this.loaded = true;
+    }
+    
+    // Ids currently held, for reconciling after a reload (ClientSearchService)
+    Set<Long> clientIds() {
+        return new HashSet<>(clients.keySet());
+    }
+    
+    private List<ClientMatch> collect(String prefix, Predicate<IndexedClient> filter, int limit) {
+        Set<Long> seen = new LinkedHashSet<>();
+        List<ClientMatch> matches = new ArrayList<>(Math.min(limit, 64));
+        ConcurrentNavigableMap<String, Long> range = terms.tailMap(prefix);
+        for (Map.Entry<String, Long> entry : range.entrySet()) {
+            if (!entry.getKey().startsWith(prefix) || matches.size() >= limit) {
+                break;
+            }
+            Long id = entry.getValue();
+            IndexedClient client = clients.get(id);
+            if (client != null && seen.add(id) && filter.test(client)) {
+                matches.add(client.match);
+            }
+        }
+        return matches;
+    }
+    
+    private void addTerms(IndexedClient client) {
+        for (String term : client.terms()) {
+            terms.put(term + SEPARATOR + client.match.getId(), client.match.getId());
+        }
+    }
+    
+    private void removeTerms(IndexedClient client) {
+        for (String term : client.terms()) {
+            terms.remove(term + SEPARATOR + client.match.getId());
+        }
+    }
+    
+    // A query made only of digits is looked up as a phone prefix; any other query by name words
+    static boolean isPhoneQuery(List<String> queryWords, String digits) {
+        return !digits.isEmpty() && queryWords.stream().allMatch(word -> NON_DIGITS.matcher(word).replaceAll("").equals(word));
+    }
+    
+    // Lower-case, accent-free words
+    static List<String> words(String text) {
+        List<String> words = new ArrayList<>();
+        if (text == null) {
+            return words;
+        }
+        String folded = MARKS.matcher(Normalizer.normalize(text, Normalizer.Form.NFD)).replaceAll("").toLowerCase(Locale.ROOT);
+        for (String word : folded.split("[^\\p{L}\\p{N}]+")) {
+            if (!word.isEmpty()) {
+                words.add(word);
+            }
+        }
+        return words;
+    }
+    
+    private static List<String> phoneTerms(String phone) {
+        List<String> phoneTerms = new ArrayList<>(2);
+        if (phone == null) {
+            return phoneTerms;
+        }
+        String digits = NON_DIGITS.matcher(phone).replaceAll("");
+        if (!digits.isEmpty()) {
+            phoneTerms.add(digits);
+        }
+        if (digits.length() > NATIONAL_DIGITS) {
+            phoneTerms.add(digits.substring(digits.length() - NATIONAL_DIGITS));
+        }
+        return phoneTerms;
+    }
+    
+    private static final class IndexedClient {
+        
+        final ClientMatch match;
+        final List<String> nameWords;
+        final List<String> phoneTerms;
+        
+        IndexedClient(ClientMatch match, List<String> nameWords, List<String> phoneTerms) {
+            this.match = match;
+            this.nameWords = nameWords;
+            this.phoneTerms = phoneTerms;
+        }
+        
+        Set<String> terms() {
+            Set<String> terms = new LinkedHashSet<>(nameWords);
+            terms.addAll(phoneTerms);
+            return terms;
+        }
+        
+        // Every query word is a prefix of some name word
+        boolean matchesAll(List<String> queryWords) {
+            for (String queryWord : queryWords) {
+                boolean found = false;
+                for (String word : nameWords) {
+                    if (word.startsWith(queryWord)) {
+                        found = true;
+                        break;
+                    }
+                }
+                if (!found) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+}
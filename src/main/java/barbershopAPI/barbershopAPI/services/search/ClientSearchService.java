@@ -0,0 +1,123 @@
+package barbershopAPI.barbershopAPI.services.search;
+
+import barbershopAPI.barbershopAPI.dto.ClientMatch;
+import barbershopAPI.barbershopAPI.services.events.EntityChange;
+import barbershopAPI.barbershopAPI.services.events.EntityChangeListener;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+// Client search for GET /api/clients/search. Answers from the ClientSearchIndex once it
+// has been loaded at startup; until then (or if loading failed) it queries the clients table.
+// Entity change events from every node reread the changed client into the index.
+@Service
+public class ClientSearchService implements EntityChangeListener {
+    
+    private static final Logger log = LoggerFactory.getLogger(ClientSearchService.class);
+    
+    // Accent folding for the database fallback without requiring the unaccent extension
+    private static final String ACCENTED = "áàâãäéèêëíìîïóòôõöúùûüçñ";
+    private static final String UNACCENTED = "aaaaaeeeeiiiiooooouuuucn";
+    
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    
+    @Autowired
+    private ClientSearchIndex clientSearchIndex;
+    
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        try {
+            reload();
+            clientSearchIndex.markLoaded();
+            log.info("Client search index loaded with {} clients", clientSearchIndex.size());
+        } catch (RuntimeException e) {
+            log.warn("Client search index not loaded, searching the database instead: {}", e.getMessage());
+        }
+    }
+    
+    @Override
+    public void onEntityChange(EntityChange change) {
+        if (change.getKind() == EntityChange.Kind.CLIENT) {
+            long id = change.getLongId();
+            if (putClients("SELECT id, name, phone FROM clients WHERE id = ?", id) == 0) {
+                clientSearchIndex.removeClient(id);
+            }
+        } else if (change.getKind() == EntityChange.Kind.RESYNC) {
+            reload();
+        }
+    }
+    
+    public List<ClientMatch> search(String query, int limit) {
+        if (clientSearchIndex.isLoaded()) {
+            return clientSearchIndex.search(query, limit);
+        }
+        return searchDatabase(query, limit);
+    }
+    
+    // Ids taken before the reread and not found by it were deleted meanwhile;
+    // ids added after it started are left alone, their own events refresh them
+    private void reload() {
+        Set<Long> stale = clientSearchIndex.clientIds();
+        jdbcTemplate.query("SELECT id, name, phone FROM clients", rs -> {
+            long id = rs.getLong("id");
+            clientSearchIndex.putClient(id, rs.getString("name"), rs.getString("phone"));
+            stale.remove(id);
+        });
+        stale.forEach(clientSearchIndex::removeClient);
+    }
+    
+    private int putClients(String sql, Object... args) {
+        int[] rows = {0};
+        jdbcTemplate.query(sql, rs -> {
+            clientSearchIndex.putClient(rs.getLong("id"), rs.getString("name"), rs.getString("phone"));
+            rows[0]++;
+        }, args);
+        return rows[0];
+    }
+    
+    // Same matching rules as the index: a query of digits only prefixes the phone digits (whole or
+    // their national part) or a name word; any other query needs every word to prefix a name word.
+    // Words are letters and digits only, so they are safe inside the regular expressions.
+    private List<ClientMatch> searchDatabase(String query, int limit) {
+        List<String> words = ClientSearchIndex.words(query);
+        if (words.isEmpty()) {
+            return List.of();
+        }
+        String name = "translate(lower(name), '" + ACCENTED + "', '" + UNACCENTED + "')";
+        String phone = "regexp_replace(phone, '\\D', '', 'g')";
+        List<Object> params = new ArrayList<>();
+        StringBuilder sql = new StringBuilder("SELECT id, name, phone FROM clients WHERE ");
+        String digits = query.replaceAll("\\D", "");
+        if (ClientSearchIndex.isPhoneQuery(words, digits)) {
+            sql.append("(").append(phone).append(" LIKE ? OR right(").append(phone).append(", ")
+                .append(ClientSearchIndex.NATIONAL_DIGITS).append(") LIKE ? OR ").append(name).append(" ~ ?)");
+            params.add(digits + "%");
+            params.add(digits + "%");
+            params.add(wordPrefix(digits));
+        } else {
+            for (int i = 0; i < words.size(); i++) {
+                sql.append(i > 0 ? " AND " : "").append(name).append(" ~ ?");
+                params.add(wordPrefix(words.get(i)));
+            }
+        }
+        sql.append(" ORDER BY name LIMIT ?");
+        params.add(limit);
+        return jdbcTemplate.query(sql.toString(),
+            (rs, rowNum) -> new ClientMatch(rs.getLong("id"), rs.getString("name"), rs.getString("phone")),
+            params.toArray());
+    }
+    
+    // Matches word at the start of the name or after any character that is not a letter or digit
+    private static String wordPrefix(String word) {
+        return "(^|[^[:alnum:]])" + word;
+    }
+}
@@ -0,0 +1,22 @@
+-- Migration: Order the notification change log by committing transaction
+-- Version: V10__Add_notification_change_txid.sql
+
+-- version is taken when the row is inserted, not when its transaction commits, so a
+-- reader can see version N+1 while N is still in flight. Every row now records its
+-- transaction id and the sync cursor is a transaction horizon: rows below
+-- pg_snapshot_xmin(pg_current_snapshot()) all belong to committed transactions.
+ALTER TABLE notification_changes ADD COLUMN txid BIGINT;
+UPDATE notification_changes SET txid = pg_current_xact_id()::text::bigint;
+ALTER TABLE notification_changes
+    ALTER COLUMN txid SET DEFAULT pg_current_xact_id()::text::bigint,
+    ALTER COLUMN txid SET NOT NULL;
+
+CREATE INDEX idx_notification_changes_txid ON notification_changes(txid, version);
+
+-- Transactions below pruned_before may have lost rows to retention; cursors below it
+-- must resync. Starts at this migration, so cursors issued as versions resync once.
+CREATE TABLE notification_changes_pruned (
+    pruned_before BIGINT NOT NULL
+);
+
+INSERT INTO notification_changes_pruned (pruned_before) VALUES (pg_current_xact_id()::text::bigint);
@@ -0,0 +1,21 @@
+-- Migration: Notification types as a lookup table
+-- Version: V11__Create_notification_types_table.sql
+
+-- V7 limited type_code with CHECK (type_code BETWEEN 1 AND 4), so appending a type to
+-- Notification.NotificationType would fail on insert until the check was rewritten. Types now
+-- live in a static table like notification_icons: a new type is a new row, added by a migration.
+CREATE TABLE notification_types (
+    code SMALLINT PRIMARY KEY,
+    name VARCHAR(50) NOT NULL UNIQUE
+);
+
+INSERT INTO notification_types (code, name) VALUES
+    (1, 'APPOINTMENT'),
+    (2, 'CLIENT'),
+    (3, 'SERVICE'),
+    (4, 'SYSTEM');
+
+-- The column check was named after the table it was created on (notifications_compact)
+ALTER TABLE notifications DROP CONSTRAINT notifications_compact_type_code_check;
+ALTER TABLE notifications
+    ADD CONSTRAINT fk_notifications_type_code FOREIGN KEY (type_code) REFERENCES notification_types(code);
@@ -0,0 +1,7 @@
+-- Migration: Add idempotency key to notifications
+-- Version: V3__Add_notification_idempotency_key.sql
+
+ALTER TABLE notifications ADD COLUMN idempotency_key VARCHAR(100);
+
+-- Retried creations with the same key resolve to the original row
+CREATE UNIQUE INDEX idx_notifications_idempotency_key ON notifications(idempotency_key) WHERE idempotency_key IS NOT NULL;
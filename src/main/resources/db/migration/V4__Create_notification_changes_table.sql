@@ -0,0 +1,33 @@
+-- Migration: Create notification change log for delta sync
+-- Version: V4__Create_notification_changes_table.sql
+
+-- One row per notification mutation; version is the sync cursor handed to clients.
+-- Deletes are kept as tombstones (change_type 'D').
+CREATE TABLE notification_changes (
+    version BIGSERIAL PRIMARY KEY,
+    notification_id BIGINT NOT NULL,
+    change_type CHAR(1) NOT NULL CHECK (change_type IN ('I', 'U', 'D')),
+    read_status BOOLEAN,
+    changed_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP
+);
+
+CREATE INDEX idx_notification_changes_changed_at ON notification_changes(changed_at);
+
+CREATE OR REPLACE FUNCTION record_notification_change()
+RETURNS TRIGGER AS $$
+BEGIN
+    IF TG_OP = 'INSERT' THEN
+        INSERT INTO notification_changes (notification_id, change_type, read_status) VALUES (NEW.id, 'I', NEW.read_status);
+    ELSIF TG_OP = 'UPDATE' THEN
+        INSERT INTO notification_changes (notification_id, change_type, read_status) VALUES (NEW.id, 'U', NEW.read_status);
+    ELSE
+        INSERT INTO notification_changes (notification_id, change_type) VALUES (OLD.id, 'D');
+    END IF;
+    RETURN NULL;
+END;
+$$ language 'plpgsql';
+
+CREATE TRIGGER record_notification_change
+    AFTER INSERT OR UPDATE OR DELETE ON notifications
+    FOR EACH ROW
+    EXECUTE FUNCTION record_notification_change();
@@ -0,0 +1,16 @@
+-- Migration: Per-notification expiry
+-- Version: V5__Add_notification_expiry.sql
+
+ALTER TABLE notifications ADD COLUMN expires_at TIMESTAMP;
+
+-- Existing rows keep the previous fixed 30-day lifetime
+UPDATE notifications SET expires_at = created_at + INTERVAL '30 days';
+
+ALTER TABLE notifications ALTER COLUMN expires_at SET DEFAULT CURRENT_TIMESTAMP + INTERVAL '30 days';
+ALTER TABLE notifications ALTER COLUMN expires_at SET NOT NULL;
+
+-- Reaper scans expired rows in expiry order
+CREATE INDEX idx_notifications_expires_at ON notifications(expires_at);
+
+-- Unread count only looks at live unread rows
+CREATE INDEX idx_notifications_unread_expires_at ON notifications(expires_at) WHERE read_status = false;
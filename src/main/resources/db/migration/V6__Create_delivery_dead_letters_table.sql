@@ -0,0 +1,16 @@
+-- Migration: Dead-letter table for outbound deliveries (SMS / e-mail / push)
+-- Version: V6__Create_delivery_dead_letters_table.sql
+
+CREATE TABLE delivery_dead_letters (
+    id BIGSERIAL PRIMARY KEY,
+    notification_id BIGINT,
+    channel VARCHAR(20) NOT NULL,
+    recipient VARCHAR(255) NOT NULL,
+    subject VARCHAR(255),
+    body TEXT NOT NULL,
+    attempts INT NOT NULL,
+    last_error TEXT,
+    created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP
+);
+
+CREATE INDEX idx_delivery_dead_letters_created_at ON delivery_dead_letters(created_at);
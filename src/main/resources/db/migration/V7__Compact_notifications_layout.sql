@@ -0,0 +1,91 @@
+-- Migration: Compact storage layout for notifications
+-- Version: V7__Compact_notifications_layout.sql
+
+-- Static icon table; codes mirror the NotificationIcon enum
+CREATE TABLE notification_icons (
+    code SMALLINT PRIMARY KEY,
+    name VARCHAR(50) NOT NULL UNIQUE
+);
+
+INSERT INTO notification_icons (code, name) VALUES
+    (1, 'notifications'),
+    (2, 'info'),
+    (3, 'person_add'),
+    (4, 'event'),
+    (5, 'event_busy'),
+    (6, 'event_available'),
+    (7, 'build'),
+    (8, 'edit');
+
+-- The table is rebuilt rather than altered so that the fixed-width columns come first
+-- (no alignment padding) and the space of the old type/icon strings is actually reclaimed.
+-- Type codes mirror Notification.NotificationType: 1 APPOINTMENT, 2 CLIENT, 3 SERVICE, 4 SYSTEM.
+CREATE TABLE notifications_compact (
+    id BIGINT NOT NULL DEFAULT nextval('notifications_id_seq'),
+    created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    updated_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    expires_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP + INTERVAL '30 days',
+    type_code SMALLINT NOT NULL CHECK (type_code BETWEEN 1 AND 4),
+    icon_code SMALLINT NOT NULL REFERENCES notification_icons(code),
+    read_status BOOLEAN NOT NULL DEFAULT FALSE,
+    title VARCHAR(255) NOT NULL,
+    message TEXT NOT NULL,
+    action_url VARCHAR(500),
+    idempotency_key VARCHAR(100),
+    CONSTRAINT notifications_compact_pkey PRIMARY KEY (id)
+);
+
+-- Icons outside the static table fall back to the default icon of the type
+INSERT INTO notifications_compact (id, created_at, updated_at, expires_at, type_code, icon_code, read_status,
+                                   title, message, action_url, idempotency_key)
+SELECT n.id,
+       COALESCE(n.created_at, CURRENT_TIMESTAMP),
+       COALESCE(n.updated_at, n.created_at, CURRENT_TIMESTAMP),
+       n.expires_at,
+       t.type_code,
+       COALESCE(i.code, t.default_icon_code),
+       COALESCE(n.read_status, FALSE),
+       n.title, n.message, n.action_url, n.idempotency_key
+FROM notifications n
+JOIN (VALUES ('APPOINTMENT', 1, 4), ('CLIENT', 2, 3), ('SERVICE', 3, 7), ('SYSTEM', 4, 2))
+    AS t (type_name, type_code, default_icon_code) ON t.type_name = n.type
+LEFT JOIN notification_icons i ON i.name = n.icon;
+
+ALTER SEQUENCE notifications_id_seq OWNED BY notifications_compact.id;
+
+-- Drops the old indexes and triggers as well; the copy above did not fire the change-log trigger
+DROP TABLE notifications;
+
+ALTER TABLE notifications_compact RENAME TO notifications;
+ALTER TABLE notifications RENAME CONSTRAINT notifications_compact_pkey TO notifications_pkey;
+
+-- idx_notifications_read_status is not recreated: unread queries use the partial index below
+CREATE INDEX idx_notifications_type ON notifications(type_code);
+CREATE INDEX idx_notifications_created_at ON notifications(created_at);
+CREATE UNIQUE INDEX idx_notifications_idempotency_key ON notifications(idempotency_key) WHERE idempotency_key IS NOT NULL;
+CREATE INDEX idx_notifications_expires_at ON notifications(expires_at);
+CREATE INDEX idx_notifications_unread_expires_at ON notifications(expires_at) WHERE read_status = false;
+
+-- The trigger is the only writer of updated_at (the entity maps it read-only):
+-- equal to created_at on insert, transaction time on every update
+CREATE OR REPLACE FUNCTION update_notifications_updated_at()
+RETURNS TRIGGER AS $$
+BEGIN
+    IF TG_OP = 'INSERT' THEN
+        NEW.updated_at = NEW.created_at;
+    ELSE
+        NEW.updated_at = CURRENT_TIMESTAMP;
+    END IF;
+    RETURN NEW;
+END;
+$$ language 'plpgsql';
+
+CREATE TRIGGER update_notifications_updated_at
+    BEFORE INSERT OR UPDATE ON notifications
+    FOR EACH ROW
+    EXECUTE FUNCTION update_notifications_updated_at();
+
+CREATE TRIGGER record_notification_change
+    AFTER INSERT OR UPDATE OR DELETE ON notifications
+    FOR EACH ROW
+    EXECUTE FUNCTION record_notification_change();
@@ -0,0 +1,13 @@
+-- Migration: Typed reference from a notification to its appointment / client / service
+-- Version: V8__Add_notification_entity_reference.sql
+
+-- entity_type codes mirror NotificationEntityType: 1 APPOINTMENT, 2 CLIENT, 3 SERVICE.
+-- entity_id is text because appointment ids are not numeric.
+ALTER TABLE notifications ADD COLUMN entity_type SMALLINT CHECK (entity_type BETWEEN 1 AND 3);
+ALTER TABLE notifications ADD COLUMN entity_id VARCHAR(64);
+
+ALTER TABLE notifications ADD CONSTRAINT chk_notifications_entity_reference
+    CHECK ((entity_type IS NULL) = (entity_id IS NULL));
+
+-- List / mark read / delete by reference are single index range scans
+CREATE INDEX idx_notifications_entity ON notifications(entity_type, entity_id) WHERE entity_id IS NOT NULL;
@@ -0,0 +1,44 @@
+-- Migration: Database safety net against double booking
+-- Version: V9__Add_appointments_no_overlap_constraint.sql
+
+-- btree_gist lets the GiST exclusion constraint compare barber_id with =
+CREATE EXTENSION IF NOT EXISTS btree_gist;
+
+-- No two active appointments of one barber may overlap. starts_at/ends_at must be TIMESTAMP
+-- columns, hence tsrange. Cancelled appointments free their slot.
+-- The appointments table belongs to the booking schema: when it is not in this database the
+-- constraint is not created and a warning says so; when its columns are not the ones BookingEngine
+-- writes, the migration fails instead of guessing.
+-- Creation fails if overlapping active appointments already exist: resolve those first.
+DO $$
+DECLARE
+    missing TEXT;
+BEGIN
+    IF to_regclass('appointments') IS NULL THEN
+        RAISE WARNING 'appointments table not found: appointments_no_overlap NOT created, double bookings from other nodes will not be rejected';
+        RETURN;
+    END IF;
+
+    -- barber_id any integer type, the range columns TIMESTAMP (tsrange), status of any type
+    SELECT string_agg(expected.column_name, ', ')
+    INTO missing
+    FROM (VALUES ('barber_id', ARRAY['bigint', 'integer']),
+                 ('starts_at', ARRAY['timestamp without time zone']),
+                 ('ends_at', ARRAY['timestamp without time zone']),
+                 ('status', NULL)) AS expected(column_name, data_types)
+    WHERE NOT EXISTS (
+        SELECT 1 FROM information_schema.columns c
+        WHERE c.table_schema = current_schema()
+          AND c.table_name = 'appointments'
+          AND c.column_name = expected.column_name
+          AND (expected.data_types IS NULL OR c.data_type = ANY (expected.data_types))
+    );
+    IF missing IS NOT NULL THEN
+        RAISE EXCEPTION 'appointments columns missing or of an unexpected type (%): cannot create appointments_no_overlap', missing;
+    END IF;
+
+    ALTER TABLE appointments ADD CONSTRAINT appointments_no_overlap
+        EXCLUDE USING gist (barber_id WITH =, tsrange(starts_at, ends_at) WITH &&)
+        WHERE (status <> 'CANCELLED');
+END;
+$$ language 'plpgsql';
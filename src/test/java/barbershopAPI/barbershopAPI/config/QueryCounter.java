@@ -0,0 +1,54 @@
+package barbershopAPI.barbershopAPI.config;
+
+import java.util.HashMap;
+import java.util.Map;
+
+// Test support: statements executed by the current thread between start() and stop(),
+// as seen by QueryCountingDataSource. Threads that never called start() are not counted.
+public final class QueryCounter {
+    
+    private static final ThreadLocal<QueryCounter> CURRENT = new ThreadLocal<>();
+    
+    private final Map<String, Integer> statements = new HashMap<>();
+    private int total;
+    
+    private QueryCounter() {
+    }
+    
+    public static QueryCounter start() {
+        QueryCounter counter = new QueryCounter();
+        CURRENT.set(counter);
+        return counter;
+    }
+    
+    public static void stop() {
+        CURRENT.remove();
+    }
+    
+    static void record(String sql) {
+        QueryCounter counter = CURRENT.get();
+        if (counter != null) {
+            counter.total++;
+            counter.statements.merge(normalize(sql), 1, Integer::sum);
+        }
+    }
+    
+    public int getTotal() {
+        return total;
+    }
+    
+    // Statements that ran at least `threshold` times, with their counts
+    public Map<String, Integer> getRepeated(int threshold) {
+        Map<String, Integer> repeated = new HashMap<>();
+        statements.forEach((sql, count) -> {
+            if (count >= threshold) {
+                repeated.put(sql, count);
+            }
+        });
+        return repeated;
+    }
+    
+    private static String normalize(String sql) {
+        return sql == null ? "" : sql.trim().replaceAll("\\s+", " ");
+    }
+}
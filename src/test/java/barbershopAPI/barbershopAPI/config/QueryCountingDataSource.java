@@ -0,0 +1,74 @@
+package barbershopAPI.barbershopAPI.config;
+
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+// Wraps a DataSource so every statement sent through its connections is recorded in QueryCounter.
+// Prepared statements and calls count once when prepared; plain statements count per execute.
+public class QueryCountingDataSource extends DelegatingDataSource {
+    
+    public QueryCountingDataSource(DataSource target) {
+        super(target);
+    }
+    
+    @Override
+    public Connection getConnection() throws SQLException {
+        return countingConnection(super.getConnection());
+    }
+    
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return countingConnection(super.getConnection(username, password));
+    }
+    
+    private static Connection countingConnection(Connection connection) {
+        return (Connection) Proxy.newProxyInstance(
+            QueryCountingDataSource.class.getClassLoader(),
+            new Class<?>[] {Connection.class},
+            new CountingHandler(connection, true));
+    }
+    
+    private static final class CountingHandler implements InvocationHandler {
+        
+        private final Object target;
+        private final boolean isConnection;
+        
+        CountingHandler(Object target, boolean isConnection) {
+            this.target = target;
+            this.isConnection = isConnection;
+        }
+        
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            String name = method.getName();
+            if (isConnection && (name.equals("prepareStatement") || name.equals("prepareCall"))) {
+                QueryCounter.record((String) args[0]);
+            } else if (!isConnection && name.startsWith("execute") && args != null && args.length > 0 && args[0] instanceof String sql) {
+                QueryCounter.record(sql);
+            } else if (!isConnection && name.equals("executeBatch")) {
+                QueryCounter.record("<batch>");
+            }
+            Object result;
+            try {
+                result = method.invoke(target, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+            if (isConnection && name.equals("createStatement")) {
+                return Proxy.newProxyInstance(
+                    QueryCountingDataSource.class.getClassLoader(),
+                    new Class<?>[] {Statement.class},
+                    new CountingHandler(result, false));
+            }
+            return result;
+        }
+    }
+}
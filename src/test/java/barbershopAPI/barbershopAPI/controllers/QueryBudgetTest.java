@@ -0,0 +1,223 @@
+package barbershopAPI.barbershopAPI.controllers;
+
+import barbershopAPI.barbershopAPI.config.QueryBudget;
+import barbershopAPI.barbershopAPI.config.QueryCounter;
+import barbershopAPI.barbershopAPI.config.QueryCountingDataSource;
+import barbershopAPI.barbershopAPI.entities.Notification;
+import barbershopAPI.barbershopAPI.entities.NotificationRef;
+import barbershopAPI.barbershopAPI.services.NotificationService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.mvc.method.annotation.RequestMappingHandlerMapping;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import javax.sql.DataSource;
+import java.lang.reflect.Method;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+
+// Statement budgets of the API. Every endpoint with a @QueryBudget is called through MockMvc against a
+// PostgreSQL container (booking tables from query-budget/core-tables.sql plus the Flyway migrations), with
+// the application DataSource wrapped in QueryCountingDataSource. A call fails when it runs more statements
+// than its budget, or the same statement REPEAT_THRESHOLD times or more (possible N+1) unless the budget
+// sets detectRepeats = false; the test also fails when an annotated endpoint was not called.
+// Only the calling thread is counted: background jobs and listeners do not affect the result.
+// Skipped without Docker.
+@SpringBootTest(properties = "spring.flyway.baseline-on-migrate=true")
+@AutoConfigureMockMvc
+@Testcontainers(disabledWithoutDocker = true)
+class QueryBudgetTest {
+    
+    private static final int REPEAT_THRESHOLD = 3;
+    
+    private static final PostgreSQLContainer<?> POSTGRES = new PostgreSQLContainer<>("postgres:16-alpine")
+        .withInitScript("query-budget/core-tables.sql");
+    
+    static {
+        POSTGRES.start();
+    }
+    
+    @DynamicPropertySource
+    static void datasource(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", POSTGRES::getJdbcUrl);
+        registry.add("spring.datasource.username", POSTGRES::getUsername);
+        registry.add("spring.datasource.password", POSTGRES::getPassword);
+    }
+    
+    @TestConfiguration
+    static class CountingConfig {
+        
+        @Bean
+        static BeanPostProcessor queryCountingDataSourcePostProcessor() {
+            return new BeanPostProcessor() {
+                @Override
+                public Object postProcessAfterInitialization(Object bean, String beanName) {
+                    if (bean instanceof DataSource dataSource && beanName.equals("dataSource")) {
+                        return new QueryCountingDataSource(dataSource);
+                    }
+                    return bean;
+                }
+            };
+        }
+    }
+    
+    @Autowired
+    private MockMvc mockMvc;
+    
+    @Autowired
+    @Qualifier("requestMappingHandlerMapping")
+    private RequestMappingHandlerMapping handlerMapping;
+    
+    @Autowired
+    private NotificationService notificationService;
+    
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final Set<Method> called = new HashSet<>();
+    // Statements run by the last call()
+    private QueryCounter lastCounter;
+    
+    @Test
+    void everyBudgetedEndpointStaysWithinItsBudget() throws Exception {
+        // Notifications
+        long first = idOf(call(post("/api/notifications").contentType(MediaType.APPLICATION_JSON)
+            .content("{\"type\":\"SYSTEM\",\"title\":\"Teste\",\"message\":\"Primeira\"}")));
+        long second = idOf(call(post("/api/notifications").contentType(MediaType.APPLICATION_JSON)
+            .header("Idempotency-Key", "query-budget-" + UUID.randomUUID())
+            .content("{\"type\":\"CLIENT\",\"title\":\"Teste\",\"message\":\"Segunda\",\"icon\":\"person_add\"}")));
+        String appointmentId = UUID.randomUUID().toString();
+        for (int i = 0; i < 3; i++) {
+            notificationService.createNotification(Notification.NotificationType.APPOINTMENT, "Marcação", "Mensagem " + i,
+                null, null, null, NotificationRef.appointment(appointmentId));
+        }
+        
+        call(get("/api/notifications"));
+        call(get("/api/notifications/unread"));
+        call(get("/api/notifications/" + first));
+        call(put("/api/notifications/" + first + "/read"));
+        // With a mark-as-read still buffered, so the pending-read correction runs too
+        call(get("/api/notifications/unread/count"));
+        call(get("/api/notifications/changes").param("since", "0"));
+        call(get("/api/notifications/by-entity").param("type", "APPOINTMENT").param("id", appointmentId));
+        call(put("/api/notifications/by-entity/read").param("type", "APPOINTMENT").param("id", appointmentId));
+        call(delete("/api/notifications/by-entity").param("type", "APPOINTMENT").param("id", appointmentId));
+        call(put("/api/notifications/read-all"));
+        call(delete("/api/notifications/" + second));
+        call(delete("/api/notifications/cleanup"));
+        
+        // Schedule
+        LocalDate today = LocalDate.now();
+        LocalDateTime startsAt = today.plusDays(1).atTime(10, 0);
+        call(post("/api/bookings").contentType(MediaType.APPLICATION_JSON)
+            .content("{\"barberId\":1,\"serviceId\":1,\"clientId\":1,\"startsAt\":\"" + startsAt
+                + "\",\"endsAt\":\"" + startsAt.plusMinutes(30) + "\"}"));
+        call(get("/api/calendar").param("from", today.atStartOfDay().toString())
+            .param("to", today.plusDays(7).atStartOfDay().toString()));
+        // Older than the calendar index keeps: read from the database
+        LocalDateTime historic = today.minusYears(1).atStartOfDay();
+        call(get("/api/calendar").param("from", historic.toString()).param("to", historic.plusDays(7).toString()));
+        
+        // Clients
+        call(get("/api/clients/search").param("q", "ana"));
+        call(post("/api/import").param("entity", "clients").contentType("text/csv")
+            .content("name,phone,email\nBruno Lima,11955554444,bruno@example.com\n"));
+        
+        Set<Method> budgeted = handlerMapping.getHandlerMethods().values().stream()
+            .map(HandlerMethod::getMethod)
+            .filter(method -> method.isAnnotationPresent(QueryBudget.class))
+            .collect(Collectors.toSet());
+        budgeted.removeAll(called);
+        assertTrue(budgeted.isEmpty(), "Endpoints with a @QueryBudget this test does not call: " + budgeted);
+    }
+    
+    // A booking is the INSERT plus the pg_notify of its change event; the service buffer
+    // comes from the availability engine, not from another query
+    @Test
+    void bookingRunsOnlyItsInsertAndChangeEvent() throws Exception {
+        LocalDateTime startsAt = LocalDate.now().plusDays(2).atTime(15, 0);
+        call(post("/api/bookings").contentType(MediaType.APPLICATION_JSON)
+            .content("{\"barberId\":1,\"serviceId\":1,\"startsAt\":\"" + startsAt
+                + "\",\"endsAt\":\"" + startsAt.plusMinutes(30) + "\"}"));
+        assertEquals(2, lastCounter.getTotal());
+        assertEquals(Set.of(
+            "INSERT INTO appointments (id, barber_id, service_id, client_id, starts_at, ends_at, status, notes) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?, ?)",
+            "SELECT pg_notify(?, ?)"), lastCounter.getRepeated(1).keySet());
+    }
+    
+    // The check above would miss N+1 patterns if the harness did not see repeated statements
+    @Test
+    void repeatedStatementIsReportedAsPossibleNPlusOne() {
+        QueryCounter counter = QueryCounter.start();
+        try {
+            for (long id = 1; id <= REPEAT_THRESHOLD; id++) {
+                jdbcTemplate.queryForList("SELECT name FROM clients WHERE id = ?", String.class, id);
+            }
+        } finally {
+            QueryCounter.stop();
+        }
+        assertEquals(REPEAT_THRESHOLD, counter.getTotal());
+        assertEquals(Map.of("SELECT name FROM clients WHERE id = ?", REPEAT_THRESHOLD), counter.getRepeated(REPEAT_THRESHOLD));
+    }
+    
+    // Performs the request while counting the statements it runs and checks them against the handler's budget
+    private MvcResult call(MockHttpServletRequestBuilder request) throws Exception {
+        QueryCounter counter = QueryCounter.start();
+        MvcResult result;
+        try {
+            result = mockMvc.perform(request).andReturn();
+        } finally {
+            QueryCounter.stop();
+        }
+        lastCounter = counter;
+        String endpoint = result.getRequest().getMethod() + " " + result.getRequest().getRequestURI();
+        int status = result.getResponse().getStatus();
+        assertTrue(status >= 200 && status < 300, endpoint + " answered " + status);
+        
+        HandlerMethod handler = (HandlerMethod) result.getHandler();
+        QueryBudget budget = handler.getMethodAnnotation(QueryBudget.class);
+        assertNotNull(budget, endpoint + " has no @QueryBudget");
+        called.add(handler.getMethod());
+        assertTrue(counter.getTotal() <= budget.value(), endpoint + " ran " + counter.getTotal()
+            + " statements, budget is " + budget.value() + ": " + counter.getRepeated(1));
+        if (budget.detectRepeats()) {
+            assertEquals(Map.of(), counter.getRepeated(REPEAT_THRESHOLD), endpoint + " possible N+1");
+        }
+        return result;
+    }
+    
+    private long idOf(MvcResult result) throws Exception {
+        return objectMapper.readTree(result.getResponse().getContentAsString()).get("id").asLong();
+    }
+}
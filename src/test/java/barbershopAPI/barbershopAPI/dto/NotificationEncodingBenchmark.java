@@ -0,0 +1,116 @@
+package barbershopAPI.barbershopAPI.dto;
+
+import barbershopAPI.barbershopAPI.config.ResponseEncodingConfig;
+import barbershopAPI.barbershopAPI.entities.Notification;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPOutputStream;
+
+// JMH benchmark of the notification list encodings NotificationController can answer with: JSON as the
+// application serves it (ISO timestamps, full field names), the compact CBOR form (Accept: application/cbor)
+// and both gzip-compressed as the server does for Accept-Encoding: gzip. Times are the serialization (plus
+// compression) CPU per response; payload sizes are printed once per trial. Lists of 100, 1k and 10k
+// notifications with the titles and messages NotificationService creates.
+// Run with: scripts/bench/jmh.sh NotificationEncodingBenchmark
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(2)
+@State(Scope.Benchmark)
+public class NotificationEncodingBenchmark {
+    
+    private static final String[] CLIENTS = {"João Silva", "Maria Oliveira", "Pedro Santos", "Ana Costa", "Lucas Pereira"};
+    private static final String[] BARBERS = {"Carlos", "Rafael", "Miguel"};
+    
+    @Param({"100", "1000", "10000"})
+    private int notifications;
+    
+    private List<Notification> list;
+    private ObjectMapper jsonMapper;
+    private ObjectMapper cborMapper;
+    
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        // As Spring Boot configures the application's JSON mapper
+        jsonMapper = Jackson2ObjectMapperBuilder.json().featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS).build();
+        cborMapper = ResponseEncodingConfig.compactCborMapper();
+        
+        Random random = new Random(42);
+        LocalDateTime now = LocalDateTime.now();
+        list = new ArrayList<>(notifications);
+        for (int i = 0; i < notifications; i++) {
+            String client = CLIENTS[random.nextInt(CLIENTS.length)];
+            String time = String.format("%02d/%02d %02d:%02d", 1 + random.nextInt(28), 1 + random.nextInt(12),
+                9 + random.nextInt(10), 15 * random.nextInt(4));
+            Notification notification = switch (random.nextInt(4)) {
+                case 0 -> new Notification(Notification.NotificationType.APPOINTMENT, "Nova Marcação",
+                    client + " agendou uma marcação com " + BARBERS[random.nextInt(BARBERS.length)] + " às " + time,
+                    "event");
+                case 1 -> new Notification(Notification.NotificationType.APPOINTMENT, "Marcação Cancelada",
+                    "A marcação de " + client + " às " + time + " foi cancelada", "event_busy");
+                case 2 -> new Notification(Notification.NotificationType.APPOINTMENT, "Lembrete de Marcação",
+                    "Marcação de " + client + " em " + time, "event");
+                default -> new Notification(Notification.NotificationType.CLIENT, "Novo Cliente",
+                    client + " foi cadastrado no sistema", "person_add");
+            };
+            notification.setId(1_000_000L + i);
+            notification.setReadStatus(random.nextInt(3) == 0);
+            notification.setCreatedAt(now.minusMinutes(random.nextInt(60 * 24 * 30)));
+            notification.setUpdatedAt(notification.getCreatedAt());
+            list.add(notification);
+        }
+        
+        System.out.printf("%n%d notifications: json %d B, json+gzip %d B, cbor %d B, cbor+gzip %d B%n", notifications,
+            json().length, jsonGzip().length, cbor().length, cborGzip().length);
+    }
+    
+    @Benchmark
+    public byte[] json() throws IOException {
+        return jsonMapper.writeValueAsBytes(list);
+    }
+    
+    @Benchmark
+    public byte[] jsonGzip() throws IOException {
+        return gzip(jsonMapper, list);
+    }
+    
+    @Benchmark
+    public byte[] cbor() throws IOException {
+        return cborMapper.writeValueAsBytes(list);
+    }
+    
+    @Benchmark
+    public byte[] cborGzip() throws IOException {
+        return gzip(cborMapper, list);
+    }
+    
+    private static byte[] gzip(ObjectMapper mapper, Object value) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (GZIPOutputStream gzip = new GZIPOutputStream(bytes)) {
+            mapper.writeValue(gzip, value);
+        }
+        return bytes.toByteArray();
+    }
+}
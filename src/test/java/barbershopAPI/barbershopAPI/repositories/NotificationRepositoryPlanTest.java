@@ -0,0 +1,321 @@
+package barbershopAPI.barbershopAPI.repositories;
+
+import barbershopAPI.barbershopAPI.entities.Notification;
+import barbershopAPI.barbershopAPI.entities.NotificationEntityType;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.testcontainers.containers.Container;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import org.testcontainers.utility.MountableFile;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Query-plan regression test for NotificationRepository.
+// Seeds a PostgreSQL container with scripts/plans/seed-notifications.sql, calls every repository method,
+// captures the SQL Hibernate actually sent together with its bound parameters, and runs
+// EXPLAIN (ANALYZE, BUFFERS) for each statement (writes rolled back). A statement fails when it
+// seq-scans notifications without being allowed to, or reads more than its share of the table's pages.
+// Shares are relative to the table size, so they hold for any seed size; writes whose cost follows the
+// number of rows they touch only have their index use checked. Execution times are printed, not enforced.
+// Rows: -Dplans.rows (default 1000000). Skipped without Docker.
+@DataJpaTest(properties = "spring.jpa.hibernate.ddl-auto=none")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Testcontainers(disabledWithoutDocker = true)
+class NotificationRepositoryPlanTest {
+    
+    private static final String SEED_PATH = "/tmp/seed-notifications.sql";
+    private static final int ROWS = Integer.getInteger("plans.rows", 1_000_000);
+    
+    // Share of the table's pages a statement may read: a lookup of a few rows, a range over the recent
+    // part of the table, or no limit. Never below MIN_BUFFERS, so small seeds do not fail on index pages.
+    private static final double POINT_LOOKUP = 0.002;
+    private static final double INDEX_RANGE = 0.10;
+    private static final double ANY = Double.MAX_VALUE;
+    private static final int MIN_BUFFERS = 100;
+    
+    private static final PostgreSQLContainer<?> POSTGRES = new PostgreSQLContainer<>("postgres:16-alpine")
+        .withCopyFileToContainer(MountableFile.forHostPath("scripts/plans/seed-notifications.sql"), SEED_PATH);
+    
+    static {
+        POSTGRES.start();
+    }
+    
+    @DynamicPropertySource
+    static void datasource(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", POSTGRES::getJdbcUrl);
+        registry.add("spring.datasource.username", POSTGRES::getUsername);
+        registry.add("spring.datasource.password", POSTGRES::getPassword);
+    }
+    
+    @TestConfiguration
+    static class CaptureConfig {
+        
+        @Bean
+        static BeanPostProcessor capturingDataSourcePostProcessor() {
+            return new BeanPostProcessor() {
+                @Override
+                public Object postProcessAfterInitialization(Object bean, String beanName) {
+                    if (bean instanceof DataSource dataSource && beanName.equals("dataSource")) {
+                        return new CapturingDataSource(dataSource);
+                    }
+                    return bean;
+                }
+            };
+        }
+    }
+    
+    @Autowired
+    private NotificationRepository notificationRepository;
+    
+    @Autowired
+    private DataSource dataSource;
+    
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+    
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final List<String> failures = new ArrayList<>();
+    
+    @Test
+    void repositoryQueriesStayOffSeqScansAndWithinBudget() throws Exception {
+        seed();
+        CapturingDataSource capturing = (CapturingDataSource) dataSource;
+        JdbcTemplate jdbc = new JdbcTemplate(capturing.getTargetDataSource());
+        long tablePages = jdbc.queryForObject("SELECT relpages FROM pg_class WHERE relname = 'notifications'", Long.class);
+        
+        // Sample parameters from the seeded data
+        LocalDateTime now = LocalDateTime.now();
+        long liveId = jdbc.queryForObject(
+            "SELECT id FROM notifications WHERE expires_at > now() ORDER BY id DESC LIMIT 1", Long.class);
+        String appointmentRef = jdbc.queryForObject(
+            "SELECT entity_id FROM notifications WHERE entity_type = 1 ORDER BY id DESC LIMIT 1", String.class);
+        String seedKey = jdbc.queryForObject(
+            "SELECT idempotency_key FROM notifications WHERE idempotency_key IS NOT NULL ORDER BY id DESC LIMIT 1", String.class);
+        // A full flush chunk of pending mark-as-read ids (NotificationService.READ_FLUSH_CHUNK_SIZE)
+        List<Long> pendingIds = jdbc.queryForList(
+            "SELECT id FROM (SELECT id FROM notifications ORDER BY id DESC LIMIT 200000) AS recent ORDER BY random() LIMIT 1000",
+            Long.class);
+        short appointment = NotificationEntityType.APPOINTMENT.getCode();
+        
+        check(capturing, tablePages, "findByExpiresAtAfterOrderByCreatedAtDesc", ANY, true,
+            () -> notificationRepository.findByExpiresAtAfterOrderByCreatedAtDesc(now));
+        check(capturing, tablePages, "findByReadStatusFalseAndExpiresAtAfterOrderByCreatedAtDesc", INDEX_RANGE, false,
+            () -> notificationRepository.findByReadStatusFalseAndExpiresAtAfterOrderByCreatedAtDesc(now));
+        check(capturing, tablePages, "countByReadStatusFalseAndExpiresAtAfter", INDEX_RANGE, false,
+            () -> notificationRepository.countByReadStatusFalseAndExpiresAtAfter(now));
+        check(capturing, tablePages, "findByIdAndExpiresAtAfter", POINT_LOOKUP, false,
+            () -> notificationRepository.findByIdAndExpiresAtAfter(liveId, now));
+        check(capturing, tablePages, "findReadStatus", POINT_LOOKUP, false,
+            () -> notificationRepository.findReadStatus(liveId, now));
+        check(capturing, tablePages, "countByIdInAndReadStatusFalseAndExpiresAtAfter", INDEX_RANGE, false,
+            () -> notificationRepository.countByIdInAndReadStatusFalseAndExpiresAtAfter(pendingIds, now));
+        // SYSTEM is 10% of the table without a LIMIT: a seq scan is the right plan
+        check(capturing, tablePages, "findByTypeOrderByCreatedAtDesc (SYSTEM)", ANY, true,
+            () -> notificationRepository.findByTypeOrderByCreatedAtDesc(Notification.NotificationType.SYSTEM));
+        check(capturing, tablePages, "findByCreatedAtAfterOrderByCreatedAtDesc (last hour)", INDEX_RANGE, false,
+            () -> notificationRepository.findByCreatedAtAfterOrderByCreatedAtDesc(now.minusHours(1)));
+        check(capturing, tablePages, "findByEntityTypeAndEntityIdAndExpiresAtAfterOrderByCreatedAtDesc", POINT_LOOKUP, false,
+            () -> notificationRepository.findByEntityTypeAndEntityIdAndExpiresAtAfterOrderByCreatedAtDesc(
+                NotificationEntityType.APPOINTMENT, appointmentRef, now));
+        check(capturing, tablePages, "markAsReadByEntity", INDEX_RANGE, false,
+            () -> notificationRepository.markAsReadByEntity(appointment, appointmentRef));
+        check(capturing, tablePages, "markAsReadByEntityExcept", INDEX_RANGE, false,
+            () -> notificationRepository.markAsReadByEntityExcept(appointment, appointmentRef, liveId));
+        check(capturing, tablePages, "deleteByEntity", INDEX_RANGE, false,
+            () -> notificationRepository.deleteByEntity(appointment, appointmentRef));
+        check(capturing, tablePages, "findByIdempotencyKey", POINT_LOOKUP, false,
+            () -> notificationRepository.findByIdempotencyKey(seedKey));
+        check(capturing, tablePages, "insertIfAbsent (conflict)", POINT_LOOKUP, false,
+            () -> notificationRepository.insertIfAbsent(Notification.NotificationType.SYSTEM.getCode(), (short) 2, "t", "m", null,
+                now, now.plusDays(7), seedKey, null, null));
+        // Touches every unread row by definition
+        check(capturing, tablePages, "markAllAsRead", ANY, true,
+            () -> notificationRepository.markAllAsRead());
+        check(capturing, tablePages, "markAsRead (1000 ids)", ANY, false,
+            () -> notificationRepository.markAsRead(pendingIds));
+        check(capturing, tablePages, "deleteExpiredBatch (500)", ANY, false,
+            () -> notificationRepository.deleteExpiredBatch(now, 500));
+        
+        assertTrue(failures.isEmpty(), String.join("\n", failures));
+    }
+    
+    private void seed() throws Exception {
+        Container.ExecResult result = POSTGRES.execInContainer("psql",
+            "-U", POSTGRES.getUsername(), "-d", POSTGRES.getDatabaseName(),
+            "-v", "ON_ERROR_STOP=1", "-v", "scratch=1", "-v", "rows=" + ROWS, "-f", SEED_PATH);
+        assertEquals(0, result.getExitCode(), result.getStderr());
+        System.out.println(result.getStdout());
+    }
+    
+    // Runs the call in a rolled-back transaction to capture its statements, then explains each one
+    private void check(CapturingDataSource capturing, long tablePages, String label, double maxTableShare,
+                       boolean seqScanOk, Runnable call) throws SQLException {
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        List<CapturedStatement> statements = capturing.capture(() -> transaction.executeWithoutResult(status -> {
+            call.run();
+            status.setRollbackOnly();
+        }));
+        assertFalse(statements.isEmpty(), label + " sent no SQL");
+        
+        for (CapturedStatement statement : statements) {
+            JsonNode plan = explain(capturing.getTargetDataSource(), statement);
+            double executionMs = plan.path("Execution Time").asDouble();
+            long buffers = plan.path("Plan").path("Shared Hit Blocks").asLong() + plan.path("Plan").path("Shared Read Blocks").asLong();
+            boolean seqScan = hasSeqScan(plan.path("Plan"));
+            System.out.printf("%-70s %9.2f ms %9d buffers%s%n", label, executionMs, buffers, seqScan ? "  seq scan" : "");
+            
+            if (seqScan && !seqScanOk) {
+                failures.add(label + ": seq scan on notifications\n" + statement.sql() + "\n" + plan.toPrettyString());
+            }
+            if (buffers > Math.max(MIN_BUFFERS, maxTableShare * tablePages)) {
+                failures.add(label + ": " + buffers + " buffers, budget is " + maxTableShare + " of " + tablePages + " table pages\n"
+                    + statement.sql() + "\n" + plan.toPrettyString());
+            }
+        }
+    }
+    
+    // Warm run, then the measured one; both rolled back
+    private JsonNode explain(DataSource target, CapturedStatement statement) throws SQLException {
+        try (Connection connection = target.getConnection()) {
+            connection.setAutoCommit(false);
+            String json = null;
+            for (int attempt = 0; attempt < 2; attempt++) {
+                try (PreparedStatement explain = connection.prepareStatement(
+                        "EXPLAIN (ANALYZE, BUFFERS, FORMAT JSON) " + statement.sql())) {
+                    statement.bind(explain);
+                    try (ResultSet rs = explain.executeQuery()) {
+                        rs.next();
+                        json = rs.getString(1);
+                    }
+                }
+                connection.rollback();
+            }
+            return objectMapper.readTree(json).get(0);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+    
+    private static boolean hasSeqScan(JsonNode node) {
+        if ("Seq Scan".equals(node.path("Node Type").asText()) && "notifications".equals(node.path("Relation Name").asText())) {
+            return true;
+        }
+        for (JsonNode child : node.path("Plans")) {
+            if (hasSeqScan(child)) {
+                return true;
+            }
+        }
+        return false;
+    }
+    
+    // SQL of a prepared statement with the setter calls that bound its parameters, replayable on another statement
+    record CapturedStatement(String sql, List<Method> setters, List<Object[]> arguments) {
+        
+        void bind(PreparedStatement target) throws SQLException {
+            for (int i = 0; i < setters.size(); i++) {
+                try {
+                    setters.get(i).invoke(target, arguments.get(i));
+                } catch (IllegalAccessException e) {
+                    throw new IllegalStateException(e);
+                } catch (InvocationTargetException e) {
+                    throw e.getCause() instanceof SQLException sql ? sql : new IllegalStateException(e.getCause());
+                }
+            }
+        }
+    }
+    
+    // Records every prepared statement executed while capture() runs
+    static class CapturingDataSource extends DelegatingDataSource {
+        
+        private volatile List<CapturedStatement> captured;
+        
+        CapturingDataSource(DataSource target) {
+            super(target);
+        }
+        
+        List<CapturedStatement> capture(Runnable action) {
+            captured = new ArrayList<>();
+            try {
+                action.run();
+                return captured;
+            } finally {
+                captured = null;
+            }
+        }
+        
+        @Override
+        public Connection getConnection() throws SQLException {
+            Connection connection = super.getConnection();
+            return (Connection) Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[] {Connection.class},
+                (proxy, method, args) -> {
+                    Object result = invoke(connection, method, args);
+                    if (result instanceof PreparedStatement statement && method.getName().equals("prepareStatement")) {
+                        return capturing(statement, (String) args[0]);
+                    }
+                    return result;
+                });
+        }
+        
+        private PreparedStatement capturing(PreparedStatement statement, String sql) {
+            List<Method> setters = new ArrayList<>();
+            List<Object[]> arguments = new ArrayList<>();
+            return (PreparedStatement) Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[] {PreparedStatement.class},
+                (proxy, method, args) -> {
+                    String name = method.getName();
+                    if (name.startsWith("set") && args != null && args.length >= 2 && args[0] instanceof Integer) {
+                        setters.add(method);
+                        arguments.add(args.clone());
+                    } else if (name.startsWith("execute") && (args == null || args.length == 0)) {
+                        List<CapturedStatement> target = captured;
+                        if (target != null) {
+                            target.add(new CapturedStatement(sql, List.copyOf(setters), List.copyOf(arguments)));
+                        }
+                    } else if (name.equals("clearParameters")) {
+                        setters.clear();
+                        arguments.clear();
+                    }
+                    return invoke(statement, method, args);
+                });
+        }
+        
+        private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+            try {
+                return method.invoke(target, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+        }
+    }
+}
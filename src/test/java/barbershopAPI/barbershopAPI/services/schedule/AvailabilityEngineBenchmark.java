@@ -0,0 +1,235 @@
+package barbershopAPI.barbershopAPI.services.schedule;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.testcontainers.containers.PostgreSQLContainer;
+
+import java.sql.Time;
+import java.sql.Timestamp;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+// JMH benchmark of the booking hot path: AvailabilityEngine against the query-based path it replaced,
+// which read the barber's working hours, time off and appointments (with their service buffers) from the
+// database on every request and looked for free starts in them. Both see the same busy shop: BARBERS
+// barbers working Mon-Sat 09:00-19:00 with BOOKINGS_PER_DAY appointments per barber and day over DAYS
+// days, in memory for the engine and in a PostgreSQL container (one per fork) for the query path.
+// Run with: scripts/bench/jmh.sh AvailabilityEngineBenchmark
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(2)
+@State(Scope.Benchmark)
+public class AvailabilityEngineBenchmark {
+    
+    private static final int BARBERS = 50;
+    private static final int DAYS = 90;
+    private static final int BOOKINGS_PER_DAY = 12;
+    private static final long SERVICE_ID = 1;
+    private static final int DURATION_MIN = 30;
+    private static final int BUFFER_MIN = 10;
+    private static final int STEP_MIN = 5;
+    private static final int RANGE_STEP_MIN = 15;
+    private static final List<Long> TEN_BARBERS = List.of(1L, 2L, 3L, 4L, 5L, 6L, 7L, 8L, 9L, 10L);
+    
+    private final Random random = new Random(42);
+    private AvailabilityEngine engine;
+    private PostgreSQLContainer<?> postgres;
+    private HikariDataSource dataSource;
+    private JdbcTemplate jdbcTemplate;
+    // Every day starts after today, so neither side cuts off starts that already passed
+    private LocalDate firstDay;
+    private long bookings;
+    
+    @Setup(Level.Trial)
+    public void setUp() {
+        postgres = new PostgreSQLContainer<>("postgres:16-alpine").withInitScript("query-budget/core-tables.sql");
+        postgres.start();
+        dataSource = new HikariDataSource();
+        dataSource.setJdbcUrl(postgres.getJdbcUrl());
+        dataSource.setUsername(postgres.getUsername());
+        dataSource.setPassword(postgres.getPassword());
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        // The init script's service 1 is the one used here (30 min + 10 min buffer); its sample hours are not
+        jdbcTemplate.update("DELETE FROM working_hours");
+        jdbcTemplate.execute("CREATE INDEX ON appointments (barber_id, starts_at)");
+        jdbcTemplate.execute("CREATE INDEX ON time_off (barber_id, starts_at)");
+        
+        engine = new AvailabilityEngine();
+        engine.putService(SERVICE_ID, DURATION_MIN, BUFFER_MIN);
+        firstDay = LocalDate.now().plusDays(1);
+        List<Object[]> workingHours = new ArrayList<>();
+        List<Object[]> appointments = new ArrayList<>();
+        long workingHoursId = 0;
+        for (long barber = 1; barber <= BARBERS; barber++) {
+            for (DayOfWeek day : DayOfWeek.values()) {
+                if (day != DayOfWeek.SUNDAY) {
+                    engine.putWorkingHours(++workingHoursId, barber, day, LocalTime.of(9, 0), LocalTime.of(19, 0));
+                    workingHours.add(new Object[] {barber, day.getValue(), Time.valueOf("09:00:00"), Time.valueOf("19:00:00")});
+                }
+            }
+            for (int d = 0; d < DAYS; d++) {
+                for (int i = 0; i < BOOKINGS_PER_DAY; i++) {
+                    LocalDateTime startsAt = firstDay.plusDays(d).atTime(9, 0).plusMinutes(5L * random.nextInt(110));
+                    LocalDateTime endsAt = startsAt.plusMinutes(DURATION_MIN);
+                    UUID id = UUID.randomUUID();
+                    engine.putAppointment(id.toString(), barber, startsAt, endsAt, BUFFER_MIN);
+                    appointments.add(new Object[] {id, barber, SERVICE_ID, Timestamp.valueOf(startsAt), Timestamp.valueOf(endsAt), "CONFIRMED"});
+                }
+            }
+        }
+        engine.markLoaded();
+        jdbcTemplate.batchUpdate(
+            "INSERT INTO working_hours (barber_id, day_of_week, start_time, end_time) VALUES (?, ?, ?, ?)", workingHours);
+        jdbcTemplate.batchUpdate(
+            "INSERT INTO appointments (id, barber_id, service_id, starts_at, ends_at, status) VALUES (?, ?, ?, ?, ?, ?)",
+            appointments);
+        jdbcTemplate.execute("ANALYZE");
+    }
+    
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        dataSource.close();
+        postgres.stop();
+    }
+    
+    @Benchmark
+    public List<LocalTime> engineSingleDay() {
+        return engine.getAvailableStarts(randomBarber(), SERVICE_ID, randomDay(), STEP_MIN);
+    }
+    
+    @Benchmark
+    public Map<LocalDate, List<LocalTime>> querySingleDay() {
+        LocalDate day = randomDay();
+        return queryAvailableStarts(randomBarber(), day, day, STEP_MIN);
+    }
+    
+    @Benchmark
+    public Map<Long, Map<LocalDate, List<LocalTime>>> engineTenBarbersMonth() {
+        return engine.getAvailableStarts(TEN_BARBERS, SERVICE_ID, firstDay, firstDay.plusDays(30), RANGE_STEP_MIN);
+    }
+    
+    // Generous to the query path: one set of queries per barber for the whole range, not one per day
+    @Benchmark
+    public Map<Long, Map<LocalDate, List<LocalTime>>> queryTenBarbersMonth() {
+        Map<Long, Map<LocalDate, List<LocalTime>>> result = new LinkedHashMap<>();
+        for (Long barber : TEN_BARBERS) {
+            result.put(barber, queryAvailableStarts(barber, firstDay, firstDay.plusDays(30), RANGE_STEP_MIN));
+        }
+        return result;
+    }
+    
+    @Benchmark
+    public boolean engineIsFreeBookCancel() {
+        LocalDateTime startsAt = randomDay().atTime(9, 0).plusMinutes(5L * random.nextInt(110));
+        long barber = randomBarber();
+        String id = "bench-" + bookings++;
+        boolean free = engine.isFree(barber, startsAt, startsAt.plusMinutes(DURATION_MIN + BUFFER_MIN));
+        if (free) {
+            engine.putAppointment(id, barber, startsAt, startsAt.plusMinutes(DURATION_MIN), BUFFER_MIN);
+        }
+        engine.removeAppointment(id);
+        return free;
+    }
+    
+    // The query-based path: the barber's rows for the range, then every step-aligned start inside working
+    // hours whose service (duration plus buffer) clears time off and the other appointments plus their buffer
+    private Map<LocalDate, List<LocalTime>> queryAvailableStarts(long barberId, LocalDate from, LocalDate to, int stepMin) {
+        LocalDateTime rangeStart = from.atStartOfDay();
+        LocalDateTime rangeEnd = to.plusDays(1).atStartOfDay();
+        int length = jdbcTemplate.queryForObject(
+            "SELECT duration_min + COALESCE(buffer_after_min, 0) FROM services WHERE id = ?", Integer.class, SERVICE_ID);
+        
+        Map<Integer, List<LocalTime[]>> hoursByDay = new HashMap<>();
+        jdbcTemplate.query("SELECT day_of_week, start_time, end_time FROM working_hours WHERE barber_id = ?",
+            rs -> {
+                hoursByDay.computeIfAbsent(rs.getInt("day_of_week"), day -> new ArrayList<>())
+                    .add(new LocalTime[] {rs.getTime("start_time").toLocalTime(), rs.getTime("end_time").toLocalTime()});
+            },
+            barberId);
+        
+        Map<LocalDate, List<LocalDateTime[]>> busyByDay = new HashMap<>();
+        jdbcTemplate.query("SELECT starts_at, ends_at FROM time_off WHERE barber_id = ? AND starts_at < ? AND ends_at > ?",
+            rs -> {
+                addBusy(busyByDay, rs.getTimestamp("starts_at").toLocalDateTime(), rs.getTimestamp("ends_at").toLocalDateTime());
+            },
+            barberId, Timestamp.valueOf(rangeEnd), Timestamp.valueOf(rangeStart));
+        jdbcTemplate.query(
+            "SELECT a.starts_at, a.ends_at, COALESCE(s.buffer_after_min, 0) AS buffer_after_min " +
+            "FROM appointments a LEFT JOIN services s ON s.id = a.service_id " +
+            "WHERE a.barber_id = ? AND a.status <> 'CANCELLED' AND a.starts_at < ? AND a.ends_at > ?",
+            rs -> {
+                LocalDateTime endsAt = rs.getTimestamp("ends_at").toLocalDateTime();
+                addBusy(busyByDay, rs.getTimestamp("starts_at").toLocalDateTime(), endsAt.plusMinutes(rs.getInt("buffer_after_min")));
+            },
+            barberId, Timestamp.valueOf(rangeEnd), Timestamp.valueOf(rangeStart.minusDays(1)));
+        
+        Map<LocalDate, List<LocalTime>> result = new LinkedHashMap<>();
+        for (LocalDate day = from; !day.isAfter(to); day = day.plusDays(1)) {
+            List<LocalDateTime[]> busy = busyByDay.getOrDefault(day, List.of());
+            List<LocalTime> starts = new ArrayList<>();
+            for (LocalTime[] hours : hoursByDay.getOrDefault(day.getDayOfWeek().getValue(), List.of())) {
+                LocalDateTime close = day.atTime(hours[1]);
+                int firstMinute = (hours[0].toSecondOfDay() / 60 + stepMin - 1) / stepMin * stepMin;
+                for (LocalDateTime start = day.atStartOfDay().plusMinutes(firstMinute);
+                     !start.plusMinutes(length).isAfter(close);
+                     start = start.plusMinutes(stepMin)) {
+                    if (isClear(busy, start, start.plusMinutes(length))) {
+                        starts.add(start.toLocalTime());
+                    }
+                }
+            }
+            if (!starts.isEmpty()) {
+                result.put(day, starts);
+            }
+        }
+        return result;
+    }
+    
+    // Indexed under every day the interval touches
+    private static void addBusy(Map<LocalDate, List<LocalDateTime[]>> busyByDay, LocalDateTime from, LocalDateTime to) {
+        for (LocalDate day = from.toLocalDate(); day.atStartOfDay().isBefore(to); day = day.plusDays(1)) {
+            busyByDay.computeIfAbsent(day, key -> new ArrayList<>()).add(new LocalDateTime[] {from, to});
+        }
+    }
+    
+    private static boolean isClear(List<LocalDateTime[]> busy, LocalDateTime from, LocalDateTime to) {
+        for (LocalDateTime[] interval : busy) {
+            if (interval[0].isBefore(to) && interval[1].isAfter(from)) {
+                return false;
+            }
+        }
+        return true;
+    }
+    
+    private long randomBarber() {
+        return 1 + random.nextInt(BARBERS);
+    }
+    
+    private LocalDate randomDay() {
+        return firstDay.plusDays(random.nextInt(DAYS));
+    }
+}
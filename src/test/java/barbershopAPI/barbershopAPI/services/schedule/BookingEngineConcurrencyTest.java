@@ -0,0 +1,181 @@
+package barbershopAPI.barbershopAPI.services.schedule;
+
+import barbershopAPI.barbershopAPI.services.events.EntityChangePublisher;
+import barbershopAPI.barbershopAPI.services.reminders.ReminderScheduler;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+
+import java.sql.Timestamp;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.temporal.TemporalAdjusters;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+
+// Many threads hammer one barber's slot while other barbers book their own slots in parallel.
+// The insert is slowed down to widen the race window: without the striped lock several threads
+// would pass the availability check before any insert lands.
+class BookingEngineConcurrencyTest {
+    
+    private static final long CONTESTED_BARBER = 1;
+    private static final int OTHER_BARBERS = 8;
+    private static final int CONTENDERS = 32;
+    private static final int BOOKINGS_PER_OTHER_BARBER = 6;
+    
+    private final Queue<Object[]> inserted = new ConcurrentLinkedQueue<>();
+    private AvailabilityEngine availabilityEngine;
+    private BookingEngine bookingEngine;
+    private LocalDate day;
+    
+    @BeforeEach
+    void setUp() {
+        day = LocalDate.now().plusWeeks(1).with(TemporalAdjusters.next(DayOfWeek.MONDAY));
+        availabilityEngine = new AvailabilityEngine();
+        for (long barber = 1; barber <= 1 + OTHER_BARBERS; barber++) {
+            availabilityEngine.putWorkingHours(barber, barber, DayOfWeek.MONDAY, LocalTime.of(9, 0), LocalTime.of(19, 0));
+        }
+        availabilityEngine.markLoaded();
+        
+        bookingEngine = new BookingEngine();
+        ReflectionTestUtils.setField(bookingEngine, "availabilityEngine", availabilityEngine);
+        ReflectionTestUtils.setField(bookingEngine, "calendarIndex", mock(CalendarIndex.class));
+        ReflectionTestUtils.setField(bookingEngine, "reminderScheduler", mock(ReminderScheduler.class));
+        ReflectionTestUtils.setField(bookingEngine, "entityChangePublisher", mock(EntityChangePublisher.class));
+        ReflectionTestUtils.setField(bookingEngine, "jdbcTemplate", new SlowInsertJdbcTemplate());
+        ReflectionTestUtils.setField(bookingEngine, "transactionManager", new NoOpTransactionManager());
+        ReflectionTestUtils.setField(bookingEngine, "lockStripes", 64);
+        bookingEngine.init();
+    }
+    
+    @Test
+    void oneWinnerPerSlotWhileOtherBarbersBookInParallel() throws Exception {
+        LocalDateTime contested = day.atTime(10, 0);
+        ExecutorService pool = Executors.newFixedThreadPool(CONTENDERS + OTHER_BARBERS);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<Boolean>> contenders = new ArrayList<>();
+        List<Future<Boolean>> others = new ArrayList<>();
+        try {
+            for (int i = 0; i < CONTENDERS; i++) {
+                contenders.add(pool.submit(() -> tryBook(start, CONTESTED_BARBER, contested)));
+            }
+            for (long barber = 2; barber <= 1 + OTHER_BARBERS; barber++) {
+                long otherBarber = barber;
+                others.add(pool.submit(() -> {
+                    boolean all = true;
+                    for (int i = 0; i < BOOKINGS_PER_OTHER_BARBER; i++) {
+                        all &= tryBook(start, otherBarber, day.atTime(9, 0).plusHours(i));
+                    }
+                    return all;
+                }));
+            }
+            start.countDown();
+            
+            int winners = 0;
+            for (Future<Boolean> contender : contenders) {
+                winners += contender.get(30, TimeUnit.SECONDS) ? 1 : 0;
+            }
+            assertEquals(1, winners, "exactly one booking wins the contested slot");
+            for (Future<Boolean> other : others) {
+                assertTrue(other.get(30, TimeUnit.SECONDS), "bookings of other barbers are not rejected");
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+        
+        assertEquals(1 + OTHER_BARBERS * BOOKINGS_PER_OTHER_BARBER, inserted.size());
+        assertFalse(availabilityEngine.isFree(CONTESTED_BARBER, contested, contested.plusMinutes(30)));
+    }
+    
+    @Test
+    void overlappingButDifferentStartsStillHaveOneWinner() throws Exception {
+        ExecutorService pool = Executors.newFixedThreadPool(CONTENDERS);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<Boolean>> contenders = new ArrayList<>();
+        try {
+            // 10:00, 10:05, ... all overlap a 30-minute booking starting at 10:00
+            for (int i = 0; i < CONTENDERS; i++) {
+                LocalDateTime startsAt = day.atTime(10, 0).plusMinutes(5L * (i % 6));
+                contenders.add(pool.submit(() -> tryBook(start, CONTESTED_BARBER, startsAt)));
+            }
+            start.countDown();
+            int winners = 0;
+            for (Future<Boolean> contender : contenders) {
+                winners += contender.get(30, TimeUnit.SECONDS) ? 1 : 0;
+            }
+            assertEquals(1, winners);
+        } finally {
+            pool.shutdownNow();
+        }
+        assertEquals(1, inserted.size());
+    }
+    
+    private boolean tryBook(CountDownLatch start, long barberId, LocalDateTime startsAt) throws InterruptedException {
+        start.await();
+        try {
+            bookingEngine.book(barberId, null, null, startsAt, startsAt.plusMinutes(30), null);
+            return true;
+        } catch (BookingException e) {
+            assertEquals(BookingException.Reason.SLOT_UNAVAILABLE, e.getReason());
+            return false;
+        }
+    }
+    
+    // Records inserts and fails on an overlap for the same barber, like appointments_no_overlap would
+    private class SlowInsertJdbcTemplate extends JdbcTemplate {
+        
+        @Override
+        public int update(String sql, Object... args) {
+            try {
+                Thread.sleep(5);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            synchronized (inserted) {
+                for (Object[] row : inserted) {
+                    if (row[1].equals(args[1]) && ((Timestamp) row[4]).before((Timestamp) args[5])
+                            && ((Timestamp) args[4]).before((Timestamp) row[5])) {
+                        throw new AssertionError("overlapping insert reached the database for barber " + args[1]);
+                    }
+                }
+                inserted.add(args);
+            }
+            return 1;
+        }
+    }
+    
+    private static class NoOpTransactionManager implements PlatformTransactionManager {
+        
+        @Override
+        public TransactionStatus getTransaction(TransactionDefinition definition) {
+            return new SimpleTransactionStatus();
+        }
+        
+        @Override
+        public void commit(TransactionStatus status) {
+        }
+        
+        @Override
+        public void rollback(TransactionStatus status) {
+        }
+    }
+}
@@ -0,0 +1,189 @@
+package barbershopAPI.barbershopAPI.services.schedule;
+
+import barbershopAPI.barbershopAPI.dto.CalendarView;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Randomized comparison of IntervalIndex and CalendarIndex against a brute-force map of every interval:
+// puts (new keys and moves of existing ones), removals, evictions and overlap queries in random order.
+// A few long intervals raise maxLength so the bounded scan in overlapping is exercised on both sides of it.
+class IntervalIndexTest {
+    
+    private static final int KEYS = 500;
+    private static final int SPAN = 10_000;
+    
+    @Test
+    void intervalIndexMatchesBruteForce() {
+        Random random = new Random(1);
+        IntervalIndex<String> index = new IntervalIndex<>();
+        Map<String, long[]> reference = new HashMap<>();
+        for (int step = 0; step < 200_000; step++) {
+            int op = random.nextInt(10);
+            String key = "k" + random.nextInt(KEYS);
+            if (op < 5) {
+                long start = random.nextInt(SPAN);
+                long end = start + 1 + random.nextInt(op == 0 ? 2000 : 50);
+                index.put(key, start, end, key);
+                reference.put(key, new long[] {start, end});
+            } else if (op < 7) {
+                index.remove(key);
+                reference.remove(key);
+            } else if (op == 7) {
+                if (random.nextInt(100) == 0) {
+                    long cutoff = random.nextInt(SPAN);
+                    Set<String> expected = reference.entrySet().stream()
+                        .filter(entry -> entry.getValue()[1] <= cutoff)
+                        .map(Map.Entry::getKey)
+                        .collect(Collectors.toSet());
+                    List<String> removed = index.removeEndedBy(cutoff);
+                    assertEquals(expected.size(), removed.size(), "step " + step + ": duplicates evicted");
+                    assertEquals(expected, new HashSet<>(removed), "step " + step + ": evicted by " + cutoff);
+                    expected.forEach(reference::remove);
+                }
+            } else {
+                long from = random.nextInt(SPAN + 1000) - 500;
+                long to = from + random.nextInt(3000);
+                assertOverlapping(index, reference, from, to, "step " + step);
+            }
+            assertEquals(reference.size(), index.size(), "step " + step);
+        }
+    }
+    
+    // Readers run while a writer keeps moving the same keys: each may be missed mid-move but never seen twice
+    @Test
+    void movedIntervalIsNeverSeenTwice() throws Exception {
+        IntervalIndex<String> index = new IntervalIndex<>();
+        for (int i = 0; i < 10; i++) {
+            index.put("k" + i, i * 100L, i * 100L + 30, "k" + i);
+        }
+        AtomicBoolean done = new AtomicBoolean();
+        Thread writer = new Thread(() -> {
+            Random random = new Random(2);
+            for (int i = 0; i < 500_000; i++) {
+                String key = "k" + random.nextInt(10);
+                long start = random.nextInt(1000);
+                index.put(key, start, start + 30, key);
+            }
+            done.set(true);
+        });
+        writer.start();
+        try {
+            while (!done.get()) {
+                List<String> seen = new ArrayList<>();
+                index.overlapping(0, 2000, seen);
+                assertEquals(new HashSet<>(seen).size(), seen.size(), "duplicates in " + seen);
+            }
+        } finally {
+            writer.join();
+        }
+        assertEquals(10, index.size());
+    }
+    
+    @Test
+    void calendarIndexEvictBeforeMatchesBruteForce() {
+        Random random = new Random(3);
+        CalendarIndex index = new CalendarIndex();
+        Map<String, CalendarView.Appointment> appointments = new HashMap<>();
+        Map<Long, CalendarView.TimeOff> timeOff = new HashMap<>();
+        LocalDateTime origin = LocalDateTime.of(2030, 1, 1, 0, 0);
+        index.markLoaded(origin);
+        LocalDateTime cutoff = origin;
+        
+        for (int step = 0; step < 50_000; step++) {
+            int op = random.nextInt(20);
+            // Barbers change now and then, so moves across calendars are covered too
+            long barber = 1 + random.nextInt(4);
+            LocalDateTime startsAt = cutoff.plusMinutes(random.nextInt(60 * 24 * 14) - 60 * 24);
+            if (op < 8) {
+                String id = "a" + random.nextInt(KEYS);
+                CalendarView.Appointment appointment = new CalendarView.Appointment(id, barber, 1L, null,
+                    startsAt, startsAt.plusMinutes(15 + random.nextInt(op == 0 ? 600 : 60)), "CONFIRMED", null);
+                index.putAppointment(appointment);
+                appointments.put(id, appointment);
+            } else if (op < 11) {
+                long id = random.nextInt(KEYS);
+                CalendarView.TimeOff off = new CalendarView.TimeOff(id, barber, startsAt,
+                    startsAt.plusHours(1 + random.nextInt(op == 8 ? 72 : 4)), null);
+                index.putTimeOff(off);
+                timeOff.put(id, off);
+            } else if (op < 13) {
+                String id = "a" + random.nextInt(KEYS);
+                index.removeAppointment(id);
+                appointments.remove(id);
+            } else if (op == 13) {
+                long id = random.nextInt(KEYS);
+                index.removeTimeOff(id);
+                timeOff.remove(id);
+            } else if (op == 14 && random.nextInt(50) == 0) {
+                cutoff = cutoff.plusHours(random.nextInt(48));
+                LocalDateTime evictedBy = cutoff;
+                index.evictBefore(evictedBy);
+                appointments.values().removeIf(appointment -> !appointment.getEndsAt().isAfter(evictedBy));
+                timeOff.values().removeIf(off -> !off.getEndsAt().isAfter(evictedBy));
+                assertFalse(index.covers(evictedBy.minusSeconds(1)), "step " + step);
+                assertTrue(index.covers(evictedBy), "step " + step);
+            } else {
+                LocalDateTime from = cutoff.plusMinutes(random.nextInt(60 * 24 * 10));
+                LocalDateTime to = from.plusMinutes(1 + random.nextInt(60 * 24 * 3));
+                assertCalendar(index, appointments, timeOff, from, to, "step " + step);
+            }
+            assertEquals(appointments.keySet(), index.appointmentIds(), "step " + step);
+            assertEquals(timeOff.keySet(), index.timeOffIds(), "step " + step);
+        }
+    }
+    
+    private static void assertOverlapping(IntervalIndex<String> index, Map<String, long[]> reference,
+                                          long from, long to, String context) {
+        List<String> out = new ArrayList<>();
+        index.overlapping(from, to, out);
+        List<String> expected = reference.entrySet().stream()
+            .filter(entry -> entry.getValue()[0] < to && entry.getValue()[1] > from)
+            .sorted(Comparator.comparingLong((Map.Entry<String, long[]> entry) -> entry.getValue()[0])
+                .thenComparing(Map.Entry::getKey))
+            .map(Map.Entry::getKey)
+            .toList();
+        assertEquals(expected, out, context + ": overlapping [" + from + ", " + to + ")");
+    }
+    
+    private static void assertCalendar(CalendarIndex index, Map<String, CalendarView.Appointment> appointments,
+                                       Map<Long, CalendarView.TimeOff> timeOff, LocalDateTime from, LocalDateTime to,
+                                       String context) {
+        CalendarView view = index.getCalendar(List.of(1L, 2L, 3L, 4L), from, to);
+        for (long barber = 1; barber <= 4; barber++) {
+            long barberId = barber;
+            CalendarView.BarberCalendar calendar = view.getBarbers().get(barberId);
+            Set<String> expectedAppointments = appointments.values().stream()
+                .filter(appointment -> appointment.getBarberId() == barberId
+                    && appointment.getStartsAt().isBefore(to) && appointment.getEndsAt().isAfter(from))
+                .map(CalendarView.Appointment::getId)
+                .collect(Collectors.toCollection(TreeSet::new));
+            List<String> actualAppointments = calendar.getAppointments().stream().map(CalendarView.Appointment::getId).toList();
+            assertEquals(expectedAppointments.size(), actualAppointments.size(), context + ": appointments of " + barberId);
+            assertEquals(expectedAppointments, new TreeSet<>(actualAppointments), context + ": appointments of " + barberId);
+            
+            Set<Long> expectedTimeOff = timeOff.values().stream()
+                .filter(off -> off.getBarberId() == barberId && off.getStartsAt().isBefore(to) && off.getEndsAt().isAfter(from))
+                .map(CalendarView.TimeOff::getId)
+                .collect(Collectors.toCollection(TreeSet::new));
+            List<Long> actualTimeOff = calendar.getTimeOff().stream().map(CalendarView.TimeOff::getId).toList();
+            assertEquals(expectedTimeOff.size(), actualTimeOff.size(), context + ": time off of " + barberId);
+            assertEquals(expectedTimeOff, new TreeSet<>(actualTimeOff), context + ": time off of " + barberId);
+        }
+    }
+}
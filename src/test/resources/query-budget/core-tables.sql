@@ -0,0 +1,53 @@
+-- Booking tables the application reads and writes next to its own migrations (they are created
+-- outside db/migration, which starts at V2), with just the columns the code uses, plus a little data:
+-- one service with a buffer, barber 1 working every day and a couple of clients.
+
+CREATE TABLE clients (
+    id BIGSERIAL PRIMARY KEY,
+    name VARCHAR(255) NOT NULL,
+    phone VARCHAR(50),
+    email VARCHAR(255)
+);
+
+CREATE TABLE services (
+    id BIGSERIAL PRIMARY KEY,
+    name VARCHAR(255) NOT NULL,
+    duration_min INTEGER NOT NULL,
+    buffer_after_min INTEGER
+);
+
+CREATE TABLE working_hours (
+    id BIGSERIAL PRIMARY KEY,
+    barber_id BIGINT NOT NULL,
+    day_of_week INTEGER NOT NULL,
+    start_time TIME NOT NULL,
+    end_time TIME NOT NULL
+);
+
+CREATE TABLE time_off (
+    id BIGSERIAL PRIMARY KEY,
+    barber_id BIGINT NOT NULL,
+    starts_at TIMESTAMP NOT NULL,
+    ends_at TIMESTAMP NOT NULL,
+    reason VARCHAR(255)
+);
+
+CREATE TABLE appointments (
+    id UUID PRIMARY KEY,
+    barber_id BIGINT NOT NULL,
+    service_id BIGINT,
+    client_id BIGINT,
+    starts_at TIMESTAMP NOT NULL,
+    ends_at TIMESTAMP NOT NULL,
+    status VARCHAR(20) NOT NULL,
+    notes TEXT
+);
+
+INSERT INTO clients (name, phone, email) VALUES
+    ('Ana Souza', '11987654321', 'ana@example.com'),
+    ('João Pereira', '11912345678', NULL);
+
+INSERT INTO services (name, duration_min, buffer_after_min) VALUES ('Corte', 30, 10);
+
+INSERT INTO working_hours (barber_id, day_of_week, start_time, end_time)
+SELECT 1, day, TIME '08:00', TIME '20:00' FROM generate_series(1, 7) AS day;